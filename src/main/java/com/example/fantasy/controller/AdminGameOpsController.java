@@ -3,12 +3,24 @@ package com.example.fantasy.controller;
 import com.example.fantasy.domain.*;
 import com.example.fantasy.domain.enums.GameWeekStatus;
 import com.example.fantasy.domain.enums.MatchStatus;
+import com.example.fantasy.dto.AdminDtos;
 import com.example.fantasy.exception.NotFoundException;
+import com.example.fantasy.exception.ValidationException;
 import com.example.fantasy.repository.*;
+import com.example.fantasy.service.LeaderboardExportService;
+import com.example.fantasy.service.PerformanceService;
+import com.example.fantasy.service.PlayerOwnershipService;
+import com.example.fantasy.service.PricingBacktestService;
+import com.example.fantasy.service.ScoringRuleService;
+import com.example.fantasy.service.ScoringSimulationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
@@ -19,19 +31,27 @@ public class AdminGameOpsController {
 
     private final GameWeekRepository gwRepo;
     private final MatchRepository matchRepo;
-    private final PlayerPerformanceRepository perfRepo;
-    private final ScoringRuleRepository scoringRepo;
+    private final PerformanceService performanceService;
+    private final ScoringRuleService scoringRuleService;
+    private final ScoringSimulationService scoringSimulationService;
+    private final LeaderboardExportService leaderboardExportService;
+    private final PlayerOwnershipService ownershipService;
+    private final PricingBacktestService pricingBacktestService;
     private final BasketballTeamRepository teamRepo;
-    private final BasketballPlayerRepository playerRepo;
 
-    public AdminGameOpsController(GameWeekRepository gwRepo, MatchRepository matchRepo, PlayerPerformanceRepository perfRepo,
-                                  ScoringRuleRepository scoringRepo, BasketballTeamRepository teamRepo, BasketballPlayerRepository playerRepo) {
+    public AdminGameOpsController(GameWeekRepository gwRepo, MatchRepository matchRepo, PerformanceService performanceService,
+                                  ScoringRuleService scoringRuleService, ScoringSimulationService scoringSimulationService,
+                                  LeaderboardExportService leaderboardExportService, PlayerOwnershipService ownershipService,
+                                  PricingBacktestService pricingBacktestService, BasketballTeamRepository teamRepo) {
         this.gwRepo = gwRepo;
         this.matchRepo = matchRepo;
-        this.perfRepo = perfRepo;
-        this.scoringRepo = scoringRepo;
+        this.performanceService = performanceService;
+        this.scoringRuleService = scoringRuleService;
+        this.scoringSimulationService = scoringSimulationService;
+        this.leaderboardExportService = leaderboardExportService;
+        this.ownershipService = ownershipService;
+        this.pricingBacktestService = pricingBacktestService;
         this.teamRepo = teamRepo;
-        this.playerRepo = playerRepo;
     }
 
     // GameWeek CRUD
@@ -84,39 +104,60 @@ public class AdminGameOpsController {
         return ResponseEntity.ok(matchRepo.save(m));
     }
 
-    // PlayerPerformance CRUD (minimal upsert)
+    // PlayerPerformance CRUD (minimal upsert); fantasy points are computed and stored on write
     @PostMapping("/performances")
     public ResponseEntity<PlayerPerformance> upsertPerf(@RequestParam Long matchId, @RequestParam Long playerId,
                                                         @RequestParam Integer points, @RequestParam Integer rebounds,
                                                         @RequestParam Integer assists, @RequestParam(required=false) Integer steals,
                                                         @RequestParam(required=false) Integer blocks, @RequestParam(required=false) Integer turnovers,
                                                         @RequestParam(required=false) Integer threeMade) {
-        Match match = matchRepo.findById(matchId).orElseThrow(() -> new NotFoundException("Match not found"));
-        BasketballPlayer player = playerRepo.findById(playerId).orElseThrow(() -> new NotFoundException("Player not found"));
-        PlayerPerformance p = new PlayerPerformance();
-        p.setMatch(match);
-        p.setPlayer(player);
-        p.setPoints(points);
-        p.setRebounds(rebounds);
-        p.setAssists(assists);
-        p.setSteals(steals);
-        p.setBlocks(blocks);
-        p.setTurnovers(turnovers);
-        p.setThreeMade(threeMade);
-        return ResponseEntity.ok(perfRepo.save(p));
+        return ResponseEntity.ok(performanceService.upsertPerformance(matchId, playerId, points, rebounds, assists,
+                steals, blocks, turnovers, threeMade));
     }
 
-    // ScoringRule CRUD
+    // Full global leaderboard for prize verification, streamed row by row as CSV or NDJSON
+    @GetMapping("/leaderboard/export")
+    public ResponseEntity<StreamingResponseBody> exportLeaderboard(@RequestParam(defaultValue = "CSV") String format) {
+        LeaderboardExportService.Format f;
+        try {
+            f = LeaderboardExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unknown export format: " + format);
+        }
+        boolean csv = f == LeaderboardExportService.Format.CSV;
+        StreamingResponseBody body = out -> leaderboardExportService.export(f, out);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=leaderboard." + (csv ? "csv" : "ndjson"))
+                .body(body);
+    }
+
+    // ScoringRule CRUD (creating a rule for an existing metric updates it)
     @PostMapping("/scoring")
     public ResponseEntity<ScoringRule> createRule(@RequestParam String metric, @RequestParam java.math.BigDecimal points) {
-        ScoringRule rule = new ScoringRule();
-        rule.setMetric(metric);
-        rule.setPointsPerUnit(points);
-        return ResponseEntity.ok(scoringRepo.save(rule));
+        return ResponseEntity.ok(scoringRuleService.upsertRule(metric, points));
     }
 
     @GetMapping("/scoring")
     public ResponseEntity<List<ScoringRule>> listRules() {
-        return ResponseEntity.ok(scoringRepo.findAll());
+        return ResponseEntity.ok(scoringRuleService.listRules());
+    }
+
+    // Scores the given gameweeks under a proposed rule set without persisting anything
+    @PostMapping("/scoring/simulate")
+    public ResponseEntity<AdminDtos.ScoringSimulationResponse> simulateRules(@Validated @RequestBody AdminDtos.ScoringSimulationRequest request) {
+        return ResponseEntity.ok(scoringSimulationService.simulate(request.rules(), request.gameWeekIds()));
+    }
+
+    // Replays past gameweeks under a grid of pricing parameters; read-only, results in grid order
+    @PostMapping("/pricing/backtest")
+    public ResponseEntity<AdminDtos.PricingBacktestResponse> backtestPricing(@RequestBody AdminDtos.PricingBacktestRequest request) {
+        return ResponseEntity.ok(pricingBacktestService.run(request.gameWeekIds(), request.grid()));
+    }
+
+    // Recounts player ownership from active squads in one grouped query; returns how many players changed
+    @PostMapping("/ownership/recount")
+    public ResponseEntity<Integer> recountOwnership() {
+        return ResponseEntity.ok(ownershipService.recountAll());
     }
-}
\ No newline at end of file
+}
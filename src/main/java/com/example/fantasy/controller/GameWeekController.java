@@ -3,7 +3,9 @@ package com.example.fantasy.controller;
 import com.example.fantasy.domain.GameWeek;
 import com.example.fantasy.domain.Match;
 import com.example.fantasy.domain.enums.GameWeekStatus;
+import com.example.fantasy.dto.FantasyDtos;
 import com.example.fantasy.service.GameWeekService;
+import com.example.fantasy.service.LiveScoringService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -18,9 +20,11 @@ import java.util.List;
 public class GameWeekController {
 
     private final GameWeekService gameWeekService;
+    private final LiveScoringService liveScoringService;
 
-    public GameWeekController(GameWeekService gameWeekService) {
+    public GameWeekController(GameWeekService gameWeekService, LiveScoringService liveScoringService) {
         this.gameWeekService = gameWeekService;
+        this.liveScoringService = liveScoringService;
     }
 
     @PostMapping("/{id}/calculate")
@@ -28,6 +32,18 @@ public class GameWeekController {
         return ResponseEntity.ok(gameWeekService.calculateGameWeekPoints(gameWeekId));
     }
 
+    @GetMapping("/{id}/teams/{teamId}/breakdown")
+    public ResponseEntity<FantasyDtos.TeamGameWeekBreakdown> getTeamBreakdown(@PathVariable("id") Long gameWeekId,
+                                                                             @PathVariable Long teamId) {
+        return ResponseEntity.ok(gameWeekService.getTeamBreakdown(gameWeekId, teamId));
+    }
+
+    // Provisional points in the ACTIVE gameweek; season totals are only updated by /calculate
+    @GetMapping("/live/teams/{teamId}")
+    public ResponseEntity<FantasyDtos.LiveTeamPoints> getLivePoints(@PathVariable Long teamId) {
+        return ResponseEntity.ok(liveScoringService.getLivePoints(teamId));
+    }
+
     @PostMapping
     public ResponseEntity<GameWeek> createGameWeek(@Validated @RequestBody CreateGameWeekRequest request) {
         GameWeek gameWeek = gameWeekService.createGameWeek(
@@ -1,6 +1,7 @@
 package com.example.fantasy.controller;
 
 import com.example.fantasy.service.LeaderboardService;
+import com.example.fantasy.service.RankHistoryService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -11,9 +12,17 @@ import java.util.List;
 public class LeaderboardController {
 
     private final LeaderboardService leaderboardService;
+    private final RankHistoryService rankHistoryService;
 
-    public LeaderboardController(LeaderboardService leaderboardService) {
+    public LeaderboardController(LeaderboardService leaderboardService, RankHistoryService rankHistoryService) {
         this.leaderboardService = leaderboardService;
+        this.rankHistoryService = rankHistoryService;
+    }
+
+    // Global and league ranks at the end of every scored gameweek, oldest first
+    @GetMapping("/history/{teamId}")
+    public ResponseEntity<RankHistoryService.TeamRankHistory> getRankHistory(@PathVariable Long teamId) {
+        return ResponseEntity.ok(rankHistoryService.getTeamHistory(teamId));
     }
 
     @GetMapping("/{leagueId}")
@@ -22,9 +31,30 @@ public class LeaderboardController {
         return ResponseEntity.ok(leaderboard);
     }
 
+    @GetMapping("/{leagueId}/around/{teamId}")
+    public ResponseEntity<LeaderboardService.LeaderboardWindow> getLeagueWindow(@PathVariable Long leagueId,
+                                                                               @PathVariable Long teamId,
+                                                                               @RequestParam(defaultValue = "10") int radius) {
+        return ResponseEntity.ok(leaderboardService.getLeagueWindow(leagueId, teamId, radius));
+    }
+
+    @GetMapping("/global/around/{teamId}")
+    public ResponseEntity<LeaderboardService.LeaderboardWindow> getGlobalWindow(@PathVariable Long teamId,
+                                                                               @RequestParam(defaultValue = "10") int radius) {
+        return ResponseEntity.ok(leaderboardService.getGlobalWindow(teamId, radius));
+    }
+
+    @GetMapping("/global/rank/{teamId}")
+    public ResponseEntity<LeaderboardService.TeamRank> getGlobalRank(@PathVariable Long teamId) {
+        return ResponseEntity.ok(leaderboardService.getGlobalRank(teamId));
+    }
+
+    // Paged; use 'after' (the last teamId of the previous page) to walk the list without offsets
     @GetMapping("/global")
-    public ResponseEntity<List<LeaderboardService.LeaderboardEntry>> getGlobalLeaderboard() {
-        List<LeaderboardService.LeaderboardEntry> leaderboard = leaderboardService.getGlobalLeaderboard();
-        return ResponseEntity.ok(leaderboard);
+    public ResponseEntity<LeaderboardService.LeaderboardPage> getGlobalLeaderboard(
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(leaderboardService.getGlobalLeaderboard(offset, after, limit));
     }
 }
\ No newline at end of file
@@ -32,9 +32,13 @@ public class LeagueController {
         return ResponseEntity.ok(leagueService.getUserLeagues(userId));
     }
 
+    // Paged standings; pass nextAfterPoints/nextAfterTeamId from the previous response to continue
     @GetMapping("/{leagueId}")
-    public ResponseEntity<?> getLeagueDetails(@PathVariable Long leagueId) {
-        return ResponseEntity.ok(leagueService.getLeagueDetails(leagueId));
+    public ResponseEntity<?> getLeagueDetails(@PathVariable Long leagueId,
+                                              @RequestParam(required = false) Integer afterPoints,
+                                              @RequestParam(required = false) Long afterTeamId,
+                                              @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(leagueService.getLeagueDetails(leagueId, afterPoints, afterTeamId, limit));
     }
 
     public static class CreateLeagueRequest {
@@ -1,14 +1,15 @@
 package com.example.fantasy.controller;
 
-import com.example.fantasy.domain.BasketballPlayer;
 import com.example.fantasy.domain.enums.PlayerPosition;
-import com.example.fantasy.repository.BasketballPlayerRepository;
-import com.example.fantasy.repository.FantasyTeamPlayerRepository;
-import com.example.fantasy.repository.FantasyTeamRepository;
+import com.example.fantasy.exception.ValidationException;
+import com.example.fantasy.service.PlayerCatalogService;
+import com.example.fantasy.service.PlayerSearchService;
+import com.example.fantasy.service.PriceHistoryService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -16,16 +17,15 @@ import java.util.stream.Collectors;
 @RequestMapping("/api/players")
 public class PlayerController {
 
-    private final BasketballPlayerRepository playerRepo;
-    private final FantasyTeamPlayerRepository teamPlayerRepo;
-    private final FantasyTeamRepository teamRepo;
+    private final PlayerCatalogService catalogService;
+    private final PlayerSearchService searchService;
+    private final PriceHistoryService priceHistoryService;
 
-    public PlayerController(BasketballPlayerRepository playerRepo,
-                            FantasyTeamPlayerRepository teamPlayerRepo,
-                            FantasyTeamRepository teamRepo) {
-        this.playerRepo = playerRepo;
-        this.teamPlayerRepo = teamPlayerRepo;
-        this.teamRepo = teamRepo;
+    public PlayerController(PlayerCatalogService catalogService, PlayerSearchService searchService,
+                            PriceHistoryService priceHistoryService) {
+        this.catalogService = catalogService;
+        this.searchService = searchService;
+        this.priceHistoryService = priceHistoryService;
     }
 
     @GetMapping
@@ -39,39 +39,80 @@ public class PlayerController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") int size
     ) {
-        List<BasketballPlayer> players = playerRepo.findByActiveTrue();
-
-        // filter basic
-        List<BasketballPlayer> filtered = players.stream()
-                .filter(p -> teamId == null || (p.getTeam() != null && p.getTeam().getId().equals(teamId)))
-                .filter(p -> position == null || p.getPosition() == PlayerPosition.valueOf(position))
-                .filter(p -> minPrice == null || (p.getMarketValue() != null && p.getMarketValue().compareTo(minPrice) >= 0))
-                .filter(p -> maxPrice == null || (p.getMarketValue() != null && p.getMarketValue().compareTo(maxPrice) <= 0))
+        PlayerPosition positionFilter = position == null ? null : PlayerPosition.valueOf(position);
+        List<PlayerListItem> pageItems = catalogService.list(teamId, positionFilter, minPrice, maxPrice,
+                        ownershipGte, ownershipLte, page, size).stream()
+                .map(e -> new PlayerListItem(
+                        e.id(),
+                        e.firstName(),
+                        e.lastName(),
+                        e.position().name(),
+                        e.teamId(),
+                        e.teamName(),
+                        e.price(),
+                        e.ownershipPct()
+                ))
                 .collect(Collectors.toList());
+        return ResponseEntity.ok(pageItems);
+    }
 
-        long totalTeams = Math.max(1, teamRepo.count());
+    // Sortable market: sort is price, ownership, total_points, form or name; page on with nextCursor
+    @GetMapping("/market")
+    public ResponseEntity<PlayerCatalogService.MarketPage> market(
+            @RequestParam(defaultValue = "price") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Long teamId,
+            @RequestParam(required = false) String position,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        PlayerCatalogService.MarketSort sortKey = parseEnum(PlayerCatalogService.MarketSort.class, "sort", sort);
+        PlayerPosition positionFilter = position == null ? null : parseEnum(PlayerPosition.class, "position", position);
+        return ResponseEntity.ok(catalogService.market(sortKey, "desc".equalsIgnoreCase(direction), cursor,
+                teamId, positionFilter, minPrice, maxPrice, limit));
+    }
 
-        List<PlayerListItem> result = filtered.stream().map(p -> {
-            long count = teamPlayerRepo.countActiveTeamsByPlayerId(p.getId());
-            double ownership = (count * 100.0) / totalTeams;
-            return new PlayerListItem(
-                    p.getId(),
-                    p.getFirstName(),
-                    p.getLastName(),
-                    p.getPosition().name(),
-                    p.getTeam() != null ? p.getTeam().getId() : null,
-                    p.getTeam() != null ? p.getTeam().getName() : null,
-                    p.getMarketValue(),
-                    Math.round(ownership * 100.0) / 100.0
-            );
-        }).filter(i -> ownershipGte == null || i.ownershipPct >= ownershipGte)
-          .filter(i -> ownershipLte == null || i.ownershipPct <= ownershipLte)
-          .collect(Collectors.toList());
+    // Typo-tolerant name search, most relevant first
+    @GetMapping("/search")
+    public ResponseEntity<List<PlayerCatalogService.CatalogEntry>> search(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(searchService.search(q, limit));
+    }
 
-        int from = Math.max(0, Math.min(page * size, result.size()));
-        int to = Math.max(from, Math.min(from + size, result.size()));
-        List<PlayerListItem> pageItems = result.subList(from, to);
-        return ResponseEntity.ok(pageItems);
+    // Price series for one player; resolution is auto, raw, hour, day or week. Times are ISO-8601 instants
+    @GetMapping("/{id}/price-history")
+    public ResponseEntity<PriceHistoryService.PriceSeries> priceHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(defaultValue = "auto") String resolution
+    ) {
+        PriceHistoryService.Resolution res = parseEnum(PriceHistoryService.Resolution.class, "resolution", resolution);
+        return ResponseEntity.ok(priceHistoryService.history(id, from, to, res));
+    }
+
+    // Sparklines for a page of players, e.g. ?ids=1,2,3&points=30
+    @GetMapping("/sparklines")
+    public ResponseEntity<List<PriceHistoryService.Sparkline>> sparklines(
+            @RequestParam List<Long> ids,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) Integer points
+    ) {
+        return ResponseEntity.ok(priceHistoryService.sparklines(ids, from, to, points));
+    }
+
+    // Case-insensitive; an unknown value is a bad request, not a server error
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String name, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unknown " + name + ": " + value);
+        }
     }
 
     public static class PlayerListItem {
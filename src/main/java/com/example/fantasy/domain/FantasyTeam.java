@@ -41,6 +41,16 @@ public class FantasyTeam {
     @Column(nullable = false)
     private Integer transfersRemaining;
 
+    // Transfer counters are only ever written by FantasyTeamRepository.incrementTransferCounters
+    @Column(name = "season_transfers", insertable = false, updatable = false)
+    private Integer seasonTransfers;
+
+    @Column(name = "gameweek_transfers", insertable = false, updatable = false)
+    private Integer gameweekTransfers;
+
+    @Column(name = "transfers_game_week_id", insertable = false, updatable = false)
+    private Long transfersGameWeekId;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private Instant createdAt;
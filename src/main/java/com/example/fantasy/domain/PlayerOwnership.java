@@ -0,0 +1,25 @@
+package com.example.fantasy.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "player_ownership")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlayerOwnership {
+    @Id
+    @Column(name = "player_id")
+    private Long playerId;
+
+    // Fantasy teams with the player in their active squad; adjusted in SQL as squads change
+    @Column(nullable = false)
+    private Integer ownerCount;
+
+    private Instant updatedAt;
+}
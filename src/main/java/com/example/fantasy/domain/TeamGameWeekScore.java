@@ -0,0 +1,33 @@
+package com.example.fantasy.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "team_gameweek_score", uniqueConstraints = @UniqueConstraint(columnNames = {"fantasy_team_id", "game_week_id"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TeamGameWeekScore {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "fantasy_team_id", nullable = false)
+    private FantasyTeam fantasyTeam;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "game_week_id", nullable = false)
+    private GameWeek gameWeek;
+
+    // Points the team scored in this gameweek; FantasyTeam.totalPoints carries the running sum
+    @Column(nullable = false)
+    private Integer points;
+
+    private Instant updatedAt;
+}
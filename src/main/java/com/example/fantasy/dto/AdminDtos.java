@@ -1,8 +1,12 @@
 package com.example.fantasy.dto;
 
+import com.example.fantasy.util.PricingParameters;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 
 public class AdminDtos {
     public record TeamUpsertRequest(
@@ -23,4 +27,58 @@ public class AdminDtos {
 
     public record PlayerResponse(Long id, String firstName, String lastName, String position, Long teamId) {}
     public record TeamResponse(Long id, String name, String shortName, String city) {}
+
+    // Proposed points per unit keyed by metric; metrics left out keep their current rule
+    public record ScoringSimulationRequest(
+            @NotEmpty Map<String, BigDecimal> rules,
+            @NotEmpty List<Long> gameWeekIds
+    ) {}
+
+    public record ScoringSimulationResponse(List<Long> gameWeekIds, int teamsChanged, List<TeamSimulation> teams) {}
+
+    public record TeamSimulation(
+            Long teamId,
+            String teamName,
+            int currentPoints,
+            int simulatedPoints,
+            int pointsDelta,
+            int currentRank,
+            int simulatedRank,
+            int rankDelta // positive means the team climbs
+    ) {}
+
+    // Candidate values per PricingParameters component; the grid is their cartesian product, and components
+    // left out keep the live value. gameWeekIds defaults to every completed gameweek.
+    public record PricingBacktestRequest(
+            List<Long> gameWeekIds,
+            Map<String, List<Double>> grid
+    ) {}
+
+    public record PricingBacktestResponse(
+            List<Long> gameWeekIds,
+            int players,
+            int parameterSets,
+            long elapsedMs,
+            PricingBacktestResult baseline, // the live parameters
+            List<PricingBacktestResult> results
+    ) {}
+
+    public record PricingBacktestResult(
+            PricingParameters parameters,
+            // Distribution of end-of-replay prices
+            double meanPrice,
+            double stdDevPrice,
+            double minPrice,
+            double p10Price,
+            double medianPrice,
+            double p90Price,
+            double maxPrice,
+            // Volatility
+            double movesPerGameWeek,      // players repriced per gameweek, on average
+            double meanAbsChangePct,      // mean absolute weekly price change, all player-weeks
+            double meanPlayerVolatility,  // mean over players of the std dev of their weekly % changes
+            double atMinPriceShare,       // share of players ending at the price floor
+            double atMaxPriceShare,       // share of players ending at the price ceiling
+            double pointsCorrelation      // Pearson correlation of end price with fantasy points over the replay
+    ) {}
 }
@@ -13,6 +13,15 @@ public class FantasyDtos {
 
     public record FantasyTeamResponse(Long id, String teamName, int totalPoints, int transfersRemaining) {}
 
+    public record LiveTeamPoints(Long gameWeekId, Long teamId, int points) {}
+
+    // Per-starter, per-fixture points for one team in one gameweek; the captain's points are already doubled
+    public record TeamGameWeekBreakdown(Long gameWeekId, Long teamId, int points, List<StarterPoints> starters) {}
+
+    public record StarterPoints(Long playerId, String slotPosition, boolean captain, int points, List<MatchPoints> matches) {}
+
+    public record MatchPoints(Long matchId, int points) {}
+
     public record TransferRequest(
             @NotNull Long fantasyTeamId,
             @NotNull Long gameWeekId,
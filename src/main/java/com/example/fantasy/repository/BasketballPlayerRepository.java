@@ -3,11 +3,29 @@ package com.example.fantasy.repository;
 import com.example.fantasy.domain.BasketballPlayer;
 import com.example.fantasy.domain.enums.PlayerPosition;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 public interface BasketballPlayerRepository extends JpaRepository<BasketballPlayer, Long> {
     List<BasketballPlayer> findByPosition(PlayerPosition position);
     List<BasketballPlayer> findByActiveTrue();
     List<BasketballPlayer> findByTeamIdAndActiveTrue(Long teamId);
+
+    // Flat rows for the in-memory player catalog; no entities, no eager team fetch per player
+    @Query("SELECT p.id AS playerId, p.firstName AS firstName, p.lastName AS lastName, p.position AS position, " +
+           "t.id AS teamId, t.name AS teamName, p.marketValue AS marketValue " +
+           "FROM BasketballPlayer p JOIN p.team t WHERE p.active = true")
+    List<CatalogRowView> findCatalogRows();
+
+    interface CatalogRowView {
+        Long getPlayerId();
+        String getFirstName();
+        String getLastName();
+        PlayerPosition getPosition();
+        Long getTeamId();
+        String getTeamName();
+        BigDecimal getMarketValue();
+    }
 }
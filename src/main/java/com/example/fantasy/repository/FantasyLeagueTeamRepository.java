@@ -3,10 +3,13 @@ package com.example.fantasy.repository;
 import com.example.fantasy.domain.FantasyLeague;
 import com.example.fantasy.domain.FantasyLeagueTeam;
 import com.example.fantasy.domain.FantasyTeam;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,7 +19,77 @@ public interface FantasyLeagueTeamRepository extends JpaRepository<FantasyLeague
     List<FantasyLeagueTeam> findByTeam(FantasyTeam team);
     
     List<FantasyLeagueTeam> findByLeagueOrderByTotalPointsDesc(FantasyLeague league);
+
+    // Keyset pages over (total_points desc, team_id asc), served by idx_league_team_standings
+    @Query("SELECT t.id AS teamId, t.teamName AS teamName, flt.totalPoints AS totalPoints, flt.rank AS rank " +
+           "FROM FantasyLeagueTeam flt JOIN flt.team t WHERE flt.league.id = :leagueId " +
+           "ORDER BY flt.totalPoints DESC, t.id ASC")
+    List<StandingView> findStandingsFirstPage(@Param("leagueId") Long leagueId, Limit limit);
+
+    @Query("SELECT t.id AS teamId, t.teamName AS teamName, flt.totalPoints AS totalPoints, flt.rank AS rank " +
+           "FROM FantasyLeagueTeam flt JOIN flt.team t WHERE flt.league.id = :leagueId " +
+           "AND (flt.totalPoints < :afterPoints OR (flt.totalPoints = :afterPoints AND t.id > :afterTeamId)) " +
+           "ORDER BY flt.totalPoints DESC, t.id ASC")
+    List<StandingView> findStandingsAfter(@Param("leagueId") Long leagueId, @Param("afterPoints") int afterPoints,
+                                          @Param("afterTeamId") Long afterTeamId, Limit limit);
+
+    // Rows for the "around me" window: the team itself, then keyset scans upwards and downwards from it
+    @Query("SELECT t.id AS teamId, t.teamName AS teamName, o.username AS ownerUsername, flt.totalPoints AS totalPoints, " +
+           "flt.rank AS rank, t.seasonTransfers AS totalTransfers, " +
+           "t.createdAt AS createdAt FROM FantasyLeagueTeam flt JOIN flt.team t JOIN t.owner o " +
+           "WHERE flt.league.id = :leagueId AND t.id = :teamId")
+    Optional<LeagueRowView> findLeagueRow(@Param("leagueId") Long leagueId, @Param("teamId") Long teamId);
+
+    // Nearest first, i.e. ascending; callers reverse it for display
+    @Query("SELECT t.id AS teamId, t.teamName AS teamName, o.username AS ownerUsername, flt.totalPoints AS totalPoints, " +
+           "flt.rank AS rank, t.seasonTransfers AS totalTransfers, " +
+           "t.createdAt AS createdAt FROM FantasyLeagueTeam flt JOIN flt.team t JOIN t.owner o " +
+           "WHERE flt.league.id = :leagueId " +
+           "AND (flt.totalPoints > :points OR (flt.totalPoints = :points AND t.id < :teamId)) " +
+           "ORDER BY flt.totalPoints ASC, t.id DESC")
+    List<LeagueRowView> findLeagueRowsAbove(@Param("leagueId") Long leagueId, @Param("points") int points,
+                                            @Param("teamId") Long teamId, Limit limit);
+
+    @Query("SELECT t.id AS teamId, t.teamName AS teamName, o.username AS ownerUsername, flt.totalPoints AS totalPoints, " +
+           "flt.rank AS rank, t.seasonTransfers AS totalTransfers, " +
+           "t.createdAt AS createdAt FROM FantasyLeagueTeam flt JOIN flt.team t JOIN t.owner o " +
+           "WHERE flt.league.id = :leagueId " +
+           "AND (flt.totalPoints < :points OR (flt.totalPoints = :points AND t.id > :teamId)) " +
+           "ORDER BY flt.totalPoints DESC, t.id ASC")
+    List<LeagueRowView> findLeagueRowsBelow(@Param("leagueId") Long leagueId, @Param("points") int points,
+                                            @Param("teamId") Long teamId, Limit limit);
+
+    /**
+     * Copies each member team's season total onto its memberships and recomputes dense ranks within
+     * every league, in one statement. Rows whose points and rank are unchanged are not rewritten.
+     */
+    @Modifying
+    @Query(value = "UPDATE fantasy_league_team flt SET total_points = s.total_points, rank = s.league_rank " +
+                   "FROM (SELECT m.id, ft.total_points, " +
+                   "DENSE_RANK() OVER (PARTITION BY m.league_id ORDER BY ft.total_points DESC) AS league_rank " +
+                   "FROM fantasy_league_team m JOIN fantasy_team ft ON ft.id = m.team_id) s " +
+                   "WHERE flt.id = s.id " +
+                   "AND (flt.total_points IS DISTINCT FROM s.total_points OR flt.rank IS DISTINCT FROM s.league_rank)",
+           nativeQuery = true)
+    int refreshStandings();
     
     @Query("SELECT flt.team.id FROM FantasyLeagueTeam flt WHERE flt.league.id = :leagueId")
     List<Long> findTeamIdsByLeagueId(@Param("leagueId") Long leagueId);
+
+    interface LeagueRowView {
+        Long getTeamId();
+        String getTeamName();
+        String getOwnerUsername();
+        Integer getTotalPoints();
+        Integer getRank();
+        Integer getTotalTransfers();
+        Instant getCreatedAt();
+    }
+
+    interface StandingView {
+        Long getTeamId();
+        String getTeamName();
+        Integer getTotalPoints();
+        Integer getRank();
+    }
 }
@@ -3,9 +3,44 @@ package com.example.fantasy.repository;
 import com.example.fantasy.domain.FantasyTeam;
 import com.example.fantasy.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
 
 public interface FantasyTeamRepository extends JpaRepository<FantasyTeam, Long> {
     List<FantasyTeam> findByOwner(User owner);
+
+    /**
+     * Counts one transfer in a single row update. When the transfer belongs to a different gameweek than
+     * the one being counted, the gameweek counter is recounted from the transfer table (which already
+     * holds this transfer), so switching between gameweeks never resets it.
+     */
+    @Modifying
+    @Query(value = "UPDATE fantasy_team SET season_transfers = season_transfers + 1, " +
+                   "gameweek_transfers = CASE WHEN transfers_game_week_id = :gameWeekId THEN gameweek_transfers + 1 " +
+                   "ELSE (SELECT COUNT(*) FROM transfer WHERE fantasy_team_id = :teamId AND game_week_id = :gameWeekId) END, " +
+                   "transfers_game_week_id = :gameWeekId WHERE id = :teamId",
+           nativeQuery = true)
+    int incrementTransferCounters(@Param("teamId") Long teamId, @Param("gameWeekId") Long gameWeekId);
+
+    @Query(value = "SELECT gameweek_transfers FROM fantasy_team WHERE id = :teamId", nativeQuery = true)
+    int findGameweekTransfers(@Param("teamId") Long teamId);
+
+    // Everything the global leaderboard shows and sorts by, in one statement over fantasy_team
+    @Query("SELECT t.id AS teamId, t.teamName AS teamName, o.username AS ownerUsername, t.totalPoints AS totalPoints, " +
+           "t.seasonTransfers AS totalTransfers, t.createdAt AS createdAt " +
+           "FROM FantasyTeam t JOIN t.owner o")
+    List<LeaderboardRowView> findLeaderboardRows();
+
+    interface LeaderboardRowView {
+        Long getTeamId();
+        String getTeamName();
+        String getOwnerUsername();
+        Integer getTotalPoints();
+        Integer getTotalTransfers();
+        Instant getCreatedAt();
+    }
 }
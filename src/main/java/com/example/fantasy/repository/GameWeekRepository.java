@@ -4,9 +4,12 @@ import com.example.fantasy.domain.GameWeek;
 import com.example.fantasy.domain.enums.GameWeekStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 public interface GameWeekRepository extends JpaRepository<GameWeek, Long> {
     Optional<GameWeek> findByNumber(Integer number);
     Optional<GameWeek> findFirstByStatus(GameWeekStatus status);
+    List<GameWeek> findByStatusAndEndDateGreaterThanEqual(GameWeekStatus status, LocalDate endDate);
 }
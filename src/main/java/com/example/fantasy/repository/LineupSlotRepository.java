@@ -3,9 +3,28 @@ package com.example.fantasy.repository;
 import com.example.fantasy.domain.Lineup;
 import com.example.fantasy.domain.LineupSlot;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface LineupSlotRepository extends JpaRepository<LineupSlot, Long> {
     List<LineupSlot> findByLineup(Lineup lineup);
+
+    @Query("SELECT l.fantasyTeam.id AS teamId, s.player.id AS playerId, s.slotPosition AS slotPosition " +
+           "FROM LineupSlot s JOIN s.lineup l " +
+           "WHERE l.gameWeek.id = :gameWeekId AND s.starter = true")
+    List<StarterSlotView> findStartersByGameWeekId(@Param("gameWeekId") Long gameWeekId);
+
+    @Query("SELECT l.fantasyTeam.id AS teamId, s.player.id AS playerId, s.slotPosition AS slotPosition " +
+           "FROM LineupSlot s JOIN s.lineup l " +
+           "WHERE l.gameWeek.id = :gameWeekId AND l.fantasyTeam.id = :teamId AND s.starter = true")
+    List<StarterSlotView> findStartersByGameWeekIdAndTeamId(@Param("gameWeekId") Long gameWeekId,
+                                                            @Param("teamId") Long teamId);
+
+    interface StarterSlotView {
+        Long getTeamId();
+        Long getPlayerId();
+        String getSlotPosition();
+    }
 }
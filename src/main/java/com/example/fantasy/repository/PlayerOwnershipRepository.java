@@ -0,0 +1,51 @@
+package com.example.fantasy.repository;
+
+import com.example.fantasy.domain.PlayerOwnership;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PlayerOwnershipRepository extends JpaRepository<PlayerOwnership, Long> {
+    @Query("SELECT o.playerId AS playerId, o.ownerCount AS ownerCount FROM PlayerOwnership o")
+    List<OwnershipView> findAllOwnership();
+
+    // Adds delta to each player's count in one statement, creating missing rows; never goes below zero.
+    // Rows are locked in player id order so concurrent squad changes cannot deadlock on each other.
+    @Modifying
+    @Query(value = "INSERT INTO player_ownership (player_id, owner_count, updated_at) " +
+                   "SELECT p.id, GREATEST(:delta, 0), now() FROM basketball_player p WHERE p.id IN (:playerIds) " +
+                   "ORDER BY p.id ON CONFLICT (player_id) DO UPDATE SET " +
+                   "owner_count = GREATEST(player_ownership.owner_count + :delta, 0), updated_at = now()",
+           nativeQuery = true)
+    int adjustOwnerCounts(@Param("playerIds") Collection<Long> playerIds, @Param("delta") int delta);
+
+    // One transfer: the out player loses an owner and the in player gains one, both rows in player id order
+    @Modifying
+    @Query(value = "INSERT INTO player_ownership (player_id, owner_count, updated_at) " +
+                   "SELECT p.id, CASE WHEN p.id = :playerInId THEN 1 ELSE 0 END, now() FROM basketball_player p " +
+                   "WHERE p.id IN (:playerOutId, :playerInId) ORDER BY p.id " +
+                   "ON CONFLICT (player_id) DO UPDATE SET owner_count = GREATEST(player_ownership.owner_count + " +
+                   "CASE WHEN player_ownership.player_id = :playerInId THEN 1 ELSE -1 END, 0), updated_at = now()",
+           nativeQuery = true)
+    int transferOwner(@Param("playerOutId") Long playerOutId, @Param("playerInId") Long playerInId);
+
+    // Full recount from active squads, for repair; rows that did not change are left alone
+    @Modifying
+    @Query(value = "INSERT INTO player_ownership (player_id, owner_count, updated_at) " +
+                   "SELECT p.id, COALESCE(c.cnt, 0), now() FROM basketball_player p " +
+                   "LEFT JOIN (SELECT player_id, COUNT(DISTINCT fantasy_team_id) AS cnt FROM fantasy_team_player " +
+                   "WHERE active = true GROUP BY player_id) c ON c.player_id = p.id " +
+                   "ON CONFLICT (player_id) DO UPDATE SET owner_count = EXCLUDED.owner_count, updated_at = EXCLUDED.updated_at " +
+                   "WHERE player_ownership.owner_count <> EXCLUDED.owner_count",
+           nativeQuery = true)
+    int recountAll();
+
+    interface OwnershipView {
+        Long getPlayerId();
+        Integer getOwnerCount();
+    }
+}
@@ -3,17 +3,76 @@ package com.example.fantasy.repository;
 import com.example.fantasy.domain.Match;
 import com.example.fantasy.domain.PlayerPerformance;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface PlayerPerformanceRepository extends JpaRepository<PlayerPerformance, Long> {
     List<PlayerPerformance> findByMatchIn(List<Match> matches);
+
+    Optional<PlayerPerformance> findByMatchIdAndPlayerId(Long matchId, Long playerId);
+
+    @Query("SELECT pp.player.id AS playerId, SUM(pp.fantasyPoints) AS points FROM PlayerPerformance pp " +
+           "WHERE pp.match.gameWeek.id = :gameWeekId GROUP BY pp.player.id")
+    List<PlayerPointsView> sumFantasyPointsByGameWeekId(@Param("gameWeekId") Long gameWeekId);
+
+    // One row per (player, match); a player in a double gameweek has one row per fixture
+    @Query("SELECT pp.player.id AS playerId, pp.match.id AS matchId, pp.fantasyPoints AS points FROM PlayerPerformance pp " +
+           "WHERE pp.match.gameWeek.id = :gameWeekId AND pp.player.id IN :playerIds ORDER BY pp.match.kickoff")
+    List<MatchPointsView> findMatchPointsByGameWeekIdAndPlayerIds(@Param("gameWeekId") Long gameWeekId,
+                                                                  @Param("playerIds") Collection<Long> playerIds);
+
+    // Raw box-score lines for re-scoring in memory under different weights
+    @Query("SELECT pp.player.id AS playerId, pp.points AS points, pp.rebounds AS rebounds, pp.assists AS assists, " +
+           "pp.steals AS steals, pp.blocks AS blocks, pp.turnovers AS turnovers, pp.threeMade AS threeMade, " +
+           "pp.fantasyPoints AS fantasyPoints FROM PlayerPerformance pp WHERE pp.match.gameWeek.id = :gameWeekId")
+    List<StatLineView> findStatLinesByGameWeekId(@Param("gameWeekId") Long gameWeekId);
+
+    @Query("SELECT COALESCE(SUM(pp.fantasyPoints), 0) FROM PlayerPerformance pp " +
+           "WHERE pp.match.gameWeek.id = :gameWeekId AND pp.player.id = :playerId")
+    Long sumFantasyPointsByGameWeekIdAndPlayerId(@Param("gameWeekId") Long gameWeekId, @Param("playerId") Long playerId);
+
+    // Weights are in hundredths of a point; ROUND(numeric) rounds half away from zero like ScoringWeights
+    @Modifying
+    @Query(value = "UPDATE player_performance SET fantasy_points = ROUND((" +
+                   "COALESCE(points, 0) * :point + COALESCE(rebounds, 0) * :rebound + COALESCE(assists, 0) * :assist + " +
+                   "COALESCE(steals, 0) * :steal + COALESCE(blocks, 0) * :block + COALESCE(turnovers, 0) * :turnover + " +
+                   "COALESCE(three_made, 0) * :threeMade) / 100.0)",
+           nativeQuery = true)
+    int recomputeFantasyPoints(@Param("point") int point, @Param("rebound") int rebound, @Param("assist") int assist,
+                               @Param("steal") int steal, @Param("block") int block, @Param("turnover") int turnover,
+                               @Param("threeMade") int threeMade);
     
     @Query("SELECT pp FROM PlayerPerformance pp " +
            "WHERE pp.player.id = :playerId " +
            "ORDER BY pp.match.gameWeek.number DESC, pp.match.kickoff DESC " +
            "LIMIT :limit")
     List<PlayerPerformance> findRecentPerformancesByPlayer(@Param("playerId") Long playerId, @Param("limit") int limit);
+
+    interface PlayerPointsView {
+        Long getPlayerId();
+        Long getPoints();
+    }
+
+    interface StatLineView {
+        Long getPlayerId();
+        Integer getPoints();
+        Integer getRebounds();
+        Integer getAssists();
+        Integer getSteals();
+        Integer getBlocks();
+        Integer getTurnovers();
+        Integer getThreeMade();
+        Integer getFantasyPoints();
+    }
+
+    interface MatchPointsView {
+        Long getPlayerId();
+        Long getMatchId();
+        Integer getPoints();
+    }
 }
@@ -0,0 +1,18 @@
+package com.example.fantasy.repository;
+
+import com.example.fantasy.domain.TeamGameWeekScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TeamGameWeekScoreRepository extends JpaRepository<TeamGameWeekScore, Long> {
+    @Query("SELECT s.fantasyTeam.id AS teamId, s.points AS points FROM TeamGameWeekScore s WHERE s.gameWeek.id = :gameWeekId")
+    List<TeamScoreView> findScoresByGameWeekId(@Param("gameWeekId") Long gameWeekId);
+
+    interface TeamScoreView {
+        Long getTeamId();
+        Integer getPoints();
+    }
+}
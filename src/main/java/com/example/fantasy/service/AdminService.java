@@ -7,6 +7,7 @@ import com.example.fantasy.dto.AdminDtos;
 import com.example.fantasy.exception.NotFoundException;
 import com.example.fantasy.repository.BasketballPlayerRepository;
 import com.example.fantasy.repository.BasketballTeamRepository;
+import com.example.fantasy.util.TransactionUtil;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,10 +19,15 @@ public class AdminService {
 
     private final BasketballTeamRepository teamRepo;
     private final BasketballPlayerRepository playerRepo;
+    private final PlayerCatalogService catalogService;
+    private final PlayerSearchService searchService;
 
-    public AdminService(BasketballTeamRepository teamRepo, BasketballPlayerRepository playerRepo) {
+    public AdminService(BasketballTeamRepository teamRepo, BasketballPlayerRepository playerRepo,
+                        PlayerCatalogService catalogService, PlayerSearchService searchService) {
         this.teamRepo = teamRepo;
         this.playerRepo = playerRepo;
+        this.catalogService = catalogService;
+        this.searchService = searchService;
     }
 
     public BasketballTeam upsertTeam(Long id, AdminDtos.TeamUpsertRequest req) {
@@ -31,11 +37,15 @@ public class AdminService {
         team.setName(req.name());
         team.setShortName(req.shortName());
         team.setCity(req.city());
-        return teamRepo.save(team);
+        BasketballTeam saved = teamRepo.save(team);
+        // Catalog rows carry the team name
+        TransactionUtil.runAfterCommit(catalogService::invalidate);
+        return saved;
     }
 
     public void deleteTeam(Long id) {
         teamRepo.deleteById(id);
+        TransactionUtil.runAfterCommit(catalogService::invalidate);
     }
 
     public BasketballPlayer upsertPlayer(Long id, AdminDtos.PlayerUpsertRequest req) {
@@ -50,10 +60,17 @@ public class AdminService {
         p.setNationality(req.nationality());
         p.setMarketValue(req.marketValue() == null ? BigDecimal.ZERO : req.marketValue());
         p.setActive(req.active());
-        return playerRepo.save(p);
+        BasketballPlayer saved = playerRepo.save(p);
+        TransactionUtil.runAfterCommit(catalogService::invalidate);
+        // Only this player's name is re-indexed
+        TransactionUtil.runAfterCommit(() -> searchService.onPlayerSaved(saved.getId(), saved.getFirstName(),
+                saved.getLastName(), saved.isActive()));
+        return saved;
     }
 
     public void deletePlayer(Long id) {
         playerRepo.deleteById(id);
+        TransactionUtil.runAfterCommit(catalogService::invalidate);
+        TransactionUtil.runAfterCommit(() -> searchService.onPlayerDeleted(id));
     }
 }
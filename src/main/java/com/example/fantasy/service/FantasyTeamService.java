@@ -6,6 +6,7 @@ import com.example.fantasy.exception.NotFoundException;
 import com.example.fantasy.exception.ValidationException;
 import com.example.fantasy.repository.*;
 import com.example.fantasy.util.LineupUtil;
+import com.example.fantasy.util.TransactionUtil;
 import com.example.fantasy.util.TransferUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,6 +35,10 @@ public class FantasyTeamService {
     private final TransferRepository transferRepo;
     private final FantasyLeagueRepository leagueRepo;
     private final FantasyLeagueTeamRepository leagueTeamRepo;
+    private final LiveScoringService liveScoringService;
+    private final LeaderboardService leaderboardService;
+    private final PlayerOwnershipService ownershipService;
+    private final TransferVolumeService transferVolumeService;
 
     public FantasyTeamService(FantasyTeamRepository teamRepo,
                               UserService userService,
@@ -44,7 +49,11 @@ public class FantasyTeamService {
                               LineupSlotRepository slotRepo,
                               TransferRepository transferRepo,
                               FantasyLeagueRepository leagueRepo,
-                              FantasyLeagueTeamRepository leagueTeamRepo) {
+                              FantasyLeagueTeamRepository leagueTeamRepo,
+                              LiveScoringService liveScoringService,
+                              LeaderboardService leaderboardService,
+                              PlayerOwnershipService ownershipService,
+                              TransferVolumeService transferVolumeService) {
         this.teamRepo = teamRepo;
         this.userService = userService;
         this.playerRepo = playerRepo;
@@ -55,6 +64,10 @@ public class FantasyTeamService {
         this.transferRepo = transferRepo;
         this.leagueRepo = leagueRepo;
         this.leagueTeamRepo = leagueTeamRepo;
+        this.liveScoringService = liveScoringService;
+        this.leaderboardService = leaderboardService;
+        this.ownershipService = ownershipService;
+        this.transferVolumeService = transferVolumeService;
     }
 
     public FantasyTeam createTeam(FantasyDtos.FantasyTeamCreateRequest req) {
@@ -77,6 +90,9 @@ public class FantasyTeamService {
 
         // Auto-join leagues: overall, favourite team, nationality
         ensureAndJoinLeagues(owner, t);
+        Long teamId = t.getId();
+        Instant createdAt = t.getCreatedAt();
+        TransactionUtil.runAfterCommit(() -> leaderboardService.onTeamCreated(teamId, createdAt));
         return t;
     }
 
@@ -206,6 +222,8 @@ public class FantasyTeamService {
             slotRepo.saveAll(slots);
         }
 
+        Long gameWeekId = gw.getId();
+        TransactionUtil.runAfterCommit(() -> liveScoringService.invalidate(gameWeekId));
         return lineup;
     }
 
@@ -241,6 +259,7 @@ public class FantasyTeamService {
         inLink.setAcquiredAt(Instant.now());
         inLink.setPurchasePrice(in.getMarketValue() == null ? BigDecimal.ZERO : in.getMarketValue());
         teamPlayerRepo.save(inLink);
+        ownershipService.playerTransferred(out.getId(), in.getId());
 
         // record transfer
         Transfer transfer = new Transfer();
@@ -253,13 +272,26 @@ public class FantasyTeamService {
         transfer.setCreatedAt(Instant.now());
         transferRepo.save(transfer);
 
+        // count it on the team row, after the insert above so a recount for a new gameweek includes it
+        teamRepo.incrementTransferCounters(team.getId(), gw.getId());
+
         // apply penalty if needed
-        long count = transferRepo.countByFantasyTeamAndGameWeek(team, gw);
+        int count = teamRepo.findGameweekTransfers(team.getId());
         int penalty = TransferUtil.calculateTransferPenalty(count);
         if (penalty > 0) {
             team.setTotalPoints(Math.max(0, team.getTotalPoints() - penalty));
             teamRepo.save(team);
         }
+        // Points and the transfer tie-breaker may have moved
+        Long teamId = team.getId();
+        int totalPoints = team.getTotalPoints();
+        Instant registeredAt = team.getCreatedAt();
+        TransactionUtil.runAfterCommit(() -> leaderboardService.onTransferRecorded(teamId, totalPoints, registeredAt));
+        // Feeds transfer-driven price moves
+        Long gameWeekId = gw.getId();
+        Long playerOutId = out.getId();
+        Long playerInId = in.getId();
+        TransactionUtil.runAfterCommit(() -> transferVolumeService.recordTransfer(gameWeekId, playerOutId, playerInId));
 
         return transfer;
     }
@@ -340,6 +372,8 @@ public class FantasyTeamService {
                 }
             }
             
+            ownershipService.playersAdded(req.playerIds());
+
             // Update team budget
             logger.debug("[SQUAD_BUILD] Updating team budget from {} to {}", 
                         team.getBudget(), team.getBudget().subtract(totalCost));
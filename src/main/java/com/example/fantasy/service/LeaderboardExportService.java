@@ -0,0 +1,147 @@
+package com.example.fantasy.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Writes the full global leaderboard to a stream, one row at a time. Rows come from a forward-only
+ * cursor (PostgreSQL only uses one inside a transaction and with a fetch size), so memory stays flat
+ * whatever the number of teams.
+ */
+@Service
+public class LeaderboardExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardExportService.class);
+
+    private static final int FETCH_SIZE = 1000;
+
+    // Same order as the global leaderboard: points desc, transfers asc, registration asc, then id
+    private static final String EXPORT_SQL =
+            "SELECT ROW_NUMBER() OVER (ORDER BY ft.total_points DESC, ft.season_transfers ASC, " +
+            "ft.created_at ASC NULLS LAST, ft.id ASC) AS rank, ft.id AS team_id, ft.team_name, u.username, " +
+            "ft.total_points, ft.season_transfers, ft.created_at " +
+            "FROM fantasy_team ft JOIN users u ON u.id = ft.owner_user_id ORDER BY rank";
+
+    public enum Format { CSV, NDJSON }
+
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate readOnlyTx;
+    private final ObjectMapper objectMapper;
+
+    public LeaderboardExportService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                    ObjectMapper objectMapper) {
+        // A dedicated template so the fetch size does not leak into other queries
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /** Streams every team to {@code out}; runs on the caller's thread inside its own read-only transaction. */
+    public void export(Format format, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        long[] rows = {0};
+        try {
+            if (format == Format.CSV) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                writer.write("rank,team_id,team_name,owner_username,total_points,total_transfers,registered_at\n");
+                stream(rs -> {
+                    writeCsv(writer, rs);
+                    rows[0]++;
+                });
+                writer.flush();
+            } else {
+                try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                    json.setRootValueSeparator(null);
+                    stream(rs -> {
+                        writeJson(json, rs);
+                        rows[0]++;
+                    });
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        logger.info("[LEADERBOARD] Exported {} rows as {} in {} ms", rows[0], format, System.currentTimeMillis() - started);
+    }
+
+    private void stream(RowWriter writer) {
+        readOnlyTx.executeWithoutResult(status -> cursorJdbcTemplate.query(EXPORT_SQL, (RowCallbackHandler) rs -> {
+            try {
+                writer.write(rs);
+            } catch (IOException e) {
+                // Client went away; abandon the cursor
+                throw new UncheckedIOException(e);
+            }
+        }));
+    }
+
+    private static void writeCsv(Writer w, ResultSet rs) throws SQLException, IOException {
+        w.write(Long.toString(rs.getLong("rank")));
+        w.write(',');
+        w.write(Long.toString(rs.getLong("team_id")));
+        w.write(',');
+        w.write(csv(rs.getString("team_name")));
+        w.write(',');
+        w.write(csv(rs.getString("username")));
+        w.write(',');
+        w.write(Integer.toString(rs.getInt("total_points")));
+        w.write(',');
+        w.write(Integer.toString(rs.getInt("season_transfers")));
+        w.write(',');
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        w.write(createdAt == null ? "" : createdAt.toInstant().toString());
+        w.write('\n');
+    }
+
+    private static void writeJson(JsonGenerator json, ResultSet rs) throws SQLException, IOException {
+        json.writeStartObject();
+        json.writeNumberField("rank", rs.getLong("rank"));
+        json.writeNumberField("teamId", rs.getLong("team_id"));
+        json.writeStringField("teamName", rs.getString("team_name"));
+        json.writeStringField("ownerUsername", rs.getString("username"));
+        json.writeNumberField("totalPoints", rs.getInt("total_points"));
+        json.writeNumberField("totalTransfers", rs.getInt("season_transfers"));
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt == null) {
+            json.writeNullField("registrationTime");
+        } else {
+            json.writeStringField("registrationTime", createdAt.toInstant().toString());
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    // RFC 4180: quote fields containing separators, quotes or line breaks; double embedded quotes
+    private static String csv(String value) {
+        if (value == null) return "";
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+}
@@ -3,34 +3,49 @@ package com.example.fantasy.service;
 import com.example.fantasy.domain.FantasyTeam;
 import com.example.fantasy.domain.Transfer;
 import com.example.fantasy.exception.NotFoundException;
+import com.example.fantasy.exception.ValidationException;
 import com.example.fantasy.repository.FantasyLeagueRepository;
 import com.example.fantasy.repository.FantasyLeagueTeamRepository;
 import com.example.fantasy.repository.FantasyTeamRepository;
-import com.example.fantasy.repository.TransferRepository;
+import com.example.fantasy.util.RankIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @Transactional(readOnly = true)
 public class LeaderboardService {
 
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_WINDOW_RADIUS = 50;
+
     private final FantasyTeamRepository fantasyTeamRepo;
     private final FantasyLeagueRepository fantasyLeagueRepo;
     private final FantasyLeagueTeamRepository fantasyLeagueTeamRepo;
-    private final TransferRepository transferRepo;
+
+    private volatile LeaderboardSnapshot globalSnapshot;
+    // Kept current between snapshots by per-team updates, so "my rank" never waits for a rebuild
+    private volatile RankIndex globalRanks;
+    // Bumped by every per-team update; a rank build started before the latest bump may have missed it
+    private final AtomicLong rankGeneration = new AtomicLong();
 
     public LeaderboardService(FantasyTeamRepository fantasyTeamRepo,
                               FantasyLeagueRepository fantasyLeagueRepo,
-                              FantasyLeagueTeamRepository fantasyLeagueTeamRepo,
-                              TransferRepository transferRepo) {
+                              FantasyLeagueTeamRepository fantasyLeagueTeamRepo) {
         this.fantasyTeamRepo = fantasyTeamRepo;
         this.fantasyLeagueRepo = fantasyLeagueRepo;
         this.fantasyLeagueTeamRepo = fantasyLeagueTeamRepo;
-        this.transferRepo = transferRepo;
     }
 
     public List<LeaderboardEntry> getLeagueLeaderboard(Long leagueId) {
@@ -45,10 +60,174 @@ public class LeaderboardService {
         return buildLeaderboard(teams);
     }
 
-    public List<LeaderboardEntry> getGlobalLeaderboard() {
-        // Get all fantasy teams
-        List<FantasyTeam> teams = fantasyTeamRepo.findAll();
-        return buildLeaderboard(teams);
+    /**
+     * One page of the global leaderboard, served from the in-memory snapshot. With {@code afterTeamId}
+     * the page starts right after that team (keyset paging); otherwise it starts at {@code offset}.
+     */
+    public LeaderboardPage getGlobalLeaderboard(int offset, Long afterTeamId, int limit) {
+        if (offset < 0) {
+            throw new ValidationException("offset must not be negative");
+        }
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        LeaderboardSnapshot snapshot = globalSnapshot();
+
+        int from = offset;
+        if (afterTeamId != null) {
+            int position = snapshot.positionOf(afterTeamId);
+            if (position < 0) {
+                throw new NotFoundException("Team not found in leaderboard");
+            }
+            from = position + 1;
+        }
+        List<LeaderboardEntry> entries = snapshot.slice(from, pageSize);
+        Long next = from + entries.size() < snapshot.size() && !entries.isEmpty()
+                ? entries.get(entries.size() - 1).teamId() : null;
+        return new LeaderboardPage(entries, from, snapshot.size(), next, snapshot.builtAt());
+    }
+
+    /**
+     * The team's global row with up to {@code radius} teams above and below it, copied straight out of
+     * the snapshot around the team's position.
+     */
+    public LeaderboardWindow getGlobalWindow(Long teamId, int radius) {
+        int r = clampRadius(radius);
+        LeaderboardSnapshot snapshot = globalSnapshot();
+        int position = snapshot.positionOf(teamId);
+        if (position < 0) {
+            throw new NotFoundException("Team not found in leaderboard");
+        }
+        int from = Math.max(0, position - r);
+        List<LeaderboardEntry> entries = snapshot.slice(from, position - from + r + 1);
+        List<RankedEntry> rows = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            rows.add(new RankedEntry(from + i + 1, entries.get(i)));
+        }
+        return new LeaderboardWindow(null, teamId, rows);
+    }
+
+    /**
+     * The team's league row with up to {@code radius} teams above and below it, ordered by points then
+     * team id. Two keyset scans on idx_league_team_standings, so the cost does not depend on league size.
+     * Ranks are the dense ranks stored by the last scoring run.
+     */
+    public LeaderboardWindow getLeagueWindow(Long leagueId, Long teamId, int radius) {
+        int r = clampRadius(radius);
+        FantasyLeagueTeamRepository.LeagueRowView self = fantasyLeagueTeamRepo.findLeagueRow(leagueId, teamId)
+                .orElseThrow(() -> new NotFoundException("Team is not a member of this league"));
+        int points = self.getTotalPoints() == null ? 0 : self.getTotalPoints();
+
+        List<FantasyLeagueTeamRepository.LeagueRowView> above =
+                new ArrayList<>(fantasyLeagueTeamRepo.findLeagueRowsAbove(leagueId, points, teamId, Limit.of(r)));
+        Collections.reverse(above);
+        List<RankedEntry> rows = new ArrayList<>(2 * r + 1);
+        above.forEach(row -> rows.add(toRankedEntry(row)));
+        rows.add(toRankedEntry(self));
+        fantasyLeagueTeamRepo.findLeagueRowsBelow(leagueId, points, teamId, Limit.of(r))
+                .forEach(row -> rows.add(toRankedEntry(row)));
+        return new LeaderboardWindow(leagueId, teamId, rows);
+    }
+
+    private static RankedEntry toRankedEntry(FantasyLeagueTeamRepository.LeagueRowView row) {
+        return new RankedEntry(row.getRank(), new LeaderboardEntry(
+                row.getTeamId(),
+                row.getTeamName(),
+                row.getOwnerUsername(),
+                row.getTotalPoints() == null ? 0 : row.getTotalPoints(),
+                row.getTotalTransfers() == null ? 0 : row.getTotalTransfers(),
+                row.getCreatedAt() != null ? row.getCreatedAt() : Instant.now()
+        ));
+    }
+
+    private static int clampRadius(int radius) {
+        return Math.min(Math.max(radius, 0), MAX_WINDOW_RADIUS);
+    }
+
+    public TeamRank getGlobalRank(Long teamId) {
+        RankIndex ranks = globalRanks();
+        int rank = ranks.rankOf(teamId);
+        if (rank < 0) {
+            throw new NotFoundException("Team not found in leaderboard");
+        }
+        return new TeamRank(teamId, rank, ranks.size(), ranks.pointsOf(teamId));
+    }
+
+    // Rebuilt eagerly after every scoring run so the first reader does not pay for it
+    public void refreshGlobalSnapshot() {
+        long started = System.currentTimeMillis();
+        long generation = rankGeneration.get();
+        List<FantasyTeamRepository.LeaderboardRowView> rows = fantasyTeamRepo.findLeaderboardRows();
+        LeaderboardSnapshot snapshot = LeaderboardSnapshot.of(rows);
+        globalSnapshot = snapshot;
+        installRanks(buildRankIndex(rows), generation);
+        logger.info("[LEADERBOARD] Global snapshot rebuilt: {} teams in {} ms",
+                snapshot.size(), System.currentTimeMillis() - started);
+    }
+
+    // The snapshot stays as it is until the next scoring run; the rank index picks the team up now
+    public void onTeamCreated(Long teamId, Instant createdAt) {
+        // Bump before reading the index, so a build installed after this read has seen the bump
+        rankGeneration.incrementAndGet();
+        RankIndex ranks = globalRanks;
+        if (ranks != null) {
+            ranks.upsert(teamId, 0, 0, (createdAt != null ? createdAt : Instant.now()).toEpochMilli());
+        }
+    }
+
+    // A transfer adds one to the tie-breaker and may have cost points
+    public void onTransferRecorded(Long teamId, int totalPoints, Instant registeredAt) {
+        // Bump first, as in onTeamCreated
+        rankGeneration.incrementAndGet();
+        RankIndex ranks = globalRanks;
+        if (ranks != null) {
+            long transfers = ranks.transfersOf(teamId);
+            ranks.upsert(teamId, totalPoints, Math.max(transfers, 0) + 1,
+                    (registeredAt != null ? registeredAt : Instant.now()).toEpochMilli());
+        }
+    }
+
+    private RankIndex globalRanks() {
+        RankIndex ranks = globalRanks;
+        if (ranks == null) {
+            long generation = rankGeneration.get();
+            ranks = buildRankIndex(fantasyTeamRepo.findLeaderboardRows());
+            installRanks(ranks, generation);
+        }
+        return ranks;
+    }
+
+    // A build whose rows were read before a per-team update is served once but not kept; the next read rebuilds.
+    // Installed before the check, so an update either sees the new index or invalidates it.
+    private synchronized void installRanks(RankIndex ranks, long generation) {
+        globalRanks = ranks;
+        if (rankGeneration.get() != generation) {
+            globalRanks = null;
+        }
+    }
+
+    private static RankIndex buildRankIndex(List<FantasyTeamRepository.LeaderboardRowView> rows) {
+        RankIndex ranks = new RankIndex();
+        long now = Instant.now().toEpochMilli();
+        for (FantasyTeamRepository.LeaderboardRowView r : rows) {
+            ranks.upsert(r.getTeamId(),
+                    r.getTotalPoints() == null ? 0 : r.getTotalPoints(),
+                    r.getTotalTransfers() == null ? 0 : r.getTotalTransfers(),
+                    r.getCreatedAt() == null ? now : r.getCreatedAt().toEpochMilli());
+        }
+        return ranks;
+    }
+
+    private LeaderboardSnapshot globalSnapshot() {
+        LeaderboardSnapshot snapshot = globalSnapshot;
+        if (snapshot == null) {
+            synchronized (this) {
+                snapshot = globalSnapshot;
+                if (snapshot == null) {
+                    snapshot = LeaderboardSnapshot.of(fantasyTeamRepo.findLeaderboardRows());
+                    globalSnapshot = snapshot;
+                }
+            }
+        }
+        return snapshot;
     }
 
     private List<LeaderboardEntry> buildLeaderboard(List<FantasyTeam> teams) {
@@ -59,8 +238,8 @@ public class LeaderboardService {
     }
 
     private LeaderboardEntry createLeaderboardEntry(FantasyTeam team) {
-        // Count total transfers made by this team
-        long totalTransfers = transferRepo.countByFantasyTeamId(team.getId());
+        // Maintained on the team row by makeTransfer
+        long totalTransfers = team.getSeasonTransfers() == null ? 0 : team.getSeasonTransfers();
         
         // Get team creation time (registration time)
         Instant registrationTime = team.getCreatedAt() != null ? team.getCreatedAt() : Instant.now();
@@ -82,6 +261,21 @@ public class LeaderboardService {
                 .thenComparing(LeaderboardEntry::registrationTime); // Earlier registration first (tie-breaker)
     }
 
+    public record LeaderboardWindow(Long leagueId, Long teamId, List<RankedEntry> entries) {}
+
+    // rank is null for league members who joined after the last scoring run
+    public record RankedEntry(Integer rank, LeaderboardEntry entry) {}
+
+    public record TeamRank(Long teamId, int rank, int totalTeams, Integer totalPoints) {}
+
+    public record LeaderboardPage(
+            List<LeaderboardEntry> entries,
+            int offset, // zero-based position of the first entry; its rank is offset + 1
+            int totalTeams,
+            Long nextAfterTeamId, // pass as 'after' for the next page; null on the last page
+            Instant snapshotAt
+    ) {}
+
     public record LeaderboardEntry(
             Long teamId,
             String teamName,
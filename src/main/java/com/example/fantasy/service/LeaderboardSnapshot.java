@@ -0,0 +1,98 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.repository.FantasyTeamRepository;
+import com.example.fantasy.util.LongIntHashMap;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable global leaderboard, sorted once with the leaderboard comparator and held as parallel
+ * arrays. Position i is rank i + 1; paging copies out only the requested rows.
+ */
+final class LeaderboardSnapshot {
+
+    // Points desc, transfers asc, registration asc; team id last so equal rows keep a stable order
+    static final Comparator<FantasyTeamRepository.LeaderboardRowView> ORDER = Comparator
+            .comparingInt((FantasyTeamRepository.LeaderboardRowView r) -> points(r)).reversed()
+            .thenComparingLong(LeaderboardSnapshot::transfers)
+            .thenComparing(r -> r.getCreatedAt() == null ? Instant.MAX : r.getCreatedAt())
+            .thenComparingLong(FantasyTeamRepository.LeaderboardRowView::getTeamId);
+
+    private final long[] teamIds;
+    private final String[] teamNames;
+    private final String[] ownerUsernames;
+    private final int[] points;
+    private final long[] transfers;
+    private final Instant[] registeredAt;
+    private final LongIntHashMap positions;
+    private final Instant builtAt;
+
+    private LeaderboardSnapshot(int size, Instant builtAt) {
+        this.teamIds = new long[size];
+        this.teamNames = new String[size];
+        this.ownerUsernames = new String[size];
+        this.points = new int[size];
+        this.transfers = new long[size];
+        this.registeredAt = new Instant[size];
+        this.positions = new LongIntHashMap(size);
+        this.builtAt = builtAt;
+    }
+
+    static LeaderboardSnapshot of(List<FantasyTeamRepository.LeaderboardRowView> rows) {
+        Instant now = Instant.now();
+        List<FantasyTeamRepository.LeaderboardRowView> sorted = new ArrayList<>(rows);
+        sorted.sort(ORDER);
+
+        LeaderboardSnapshot s = new LeaderboardSnapshot(sorted.size(), now);
+        for (int i = 0; i < sorted.size(); i++) {
+            FantasyTeamRepository.LeaderboardRowView r = sorted.get(i);
+            s.teamIds[i] = r.getTeamId();
+            s.teamNames[i] = r.getTeamName();
+            s.ownerUsernames[i] = r.getOwnerUsername();
+            s.points[i] = points(r);
+            s.transfers[i] = transfers(r);
+            s.registeredAt[i] = r.getCreatedAt() != null ? r.getCreatedAt() : now;
+            s.positions.put(r.getTeamId(), i);
+        }
+        return s;
+    }
+
+    int size() {
+        return teamIds.length;
+    }
+
+    Instant builtAt() {
+        return builtAt;
+    }
+
+    /** Zero-based position of the team, or -1 if it was not in the snapshot. */
+    int positionOf(long teamId) {
+        return positions.containsKey(teamId) ? positions.get(teamId) : -1;
+    }
+
+    List<LeaderboardService.LeaderboardEntry> slice(int from, int limit) {
+        int start = Math.max(0, from);
+        int end = (int) Math.min((long) start + Math.max(0, limit), teamIds.length);
+        List<LeaderboardService.LeaderboardEntry> page = new ArrayList<>(Math.max(0, end - start));
+        for (int i = start; i < end; i++) {
+            page.add(entry(i));
+        }
+        return page;
+    }
+
+    LeaderboardService.LeaderboardEntry entry(int position) {
+        return new LeaderboardService.LeaderboardEntry(teamIds[position], teamNames[position], ownerUsernames[position],
+                points[position], transfers[position], registeredAt[position]);
+    }
+
+    private static int points(FantasyTeamRepository.LeaderboardRowView r) {
+        return r.getTotalPoints() == null ? 0 : r.getTotalPoints();
+    }
+
+    private static long transfers(FantasyTeamRepository.LeaderboardRowView r) {
+        return r.getTotalTransfers() == null ? 0 : r.getTotalTransfers();
+    }
+}
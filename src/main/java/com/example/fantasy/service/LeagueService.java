@@ -12,6 +12,7 @@ import com.example.fantasy.repository.FantasyLeagueRepository;
 import com.example.fantasy.repository.FantasyLeagueTeamRepository;
 import com.example.fantasy.repository.FantasyTeamRepository;
 import com.example.fantasy.repository.UserRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +28,8 @@ import java.util.stream.Collectors;
 @Transactional
 public class LeagueService {
 
+    private static final int MAX_STANDINGS_PAGE_SIZE = 200;
+
     private final FantasyLeagueRepository leagueRepo;
     private final UserRepository userRepo;
     private final FantasyTeamRepository teamRepo;
@@ -169,26 +172,46 @@ public class LeagueService {
                 .collect(Collectors.toList());
     }
 
-    public LeagueDetailsInfo getLeagueDetails(Long leagueId) {
+    /**
+     * One page of league standings, ordered by points (highest first) then team id. Pass the last row's
+     * points and team id as {@code afterPoints}/{@code afterTeamId} to get the next page; each page is a
+     * single index range scan however large the league is.
+     */
+    @Transactional(readOnly = true)
+    public LeagueDetailsInfo getLeagueDetails(Long leagueId, Integer afterPoints, Long afterTeamId, int limit) {
         // Find the league
         FantasyLeague league = leagueRepo.findById(leagueId)
                 .orElseThrow(() -> new NotFoundException("League not found"));
-        
-        // Find all teams in the league ordered by total points (highest first)
-        List<FantasyLeagueTeam> rankings = leagueTeamRepo.findByLeagueOrderByTotalPointsDesc(league);
-        
-        List<TeamRankingInfo> teamRankings = rankings.stream()
-                .map(membership -> new TeamRankingInfo(
-                    membership.getTeam().getTeamName(),
-                    membership.getTotalPoints()
+        if ((afterPoints == null) != (afterTeamId == null)) {
+            throw new ValidationException("afterPoints and afterTeamId must be given together");
+        }
+        int pageSize = Math.min(Math.max(limit, 1), MAX_STANDINGS_PAGE_SIZE);
+
+        // Points and ranks are maintained by the scoring run, so this is a plain ordered read
+        List<FantasyLeagueTeamRepository.StandingView> rows = afterPoints == null
+                ? leagueTeamRepo.findStandingsFirstPage(leagueId, Limit.of(pageSize + 1))
+                : leagueTeamRepo.findStandingsAfter(leagueId, afterPoints, afterTeamId, Limit.of(pageSize + 1));
+
+        // One extra row tells whether another page exists
+        boolean hasMore = rows.size() > pageSize;
+        List<TeamRankingInfo> teamRankings = rows.stream()
+                .limit(pageSize)
+                .map(row -> new TeamRankingInfo(
+                    row.getTeamId(),
+                    row.getTeamName(),
+                    row.getTotalPoints(),
+                    row.getRank()
                 ))
                 .collect(Collectors.toList());
-        
+
+        TeamRankingInfo last = hasMore ? teamRankings.get(teamRankings.size() - 1) : null;
         return new LeagueDetailsInfo(
             league.getId(),
             league.getName(),
             league.getType().toString(),
-            teamRankings
+            teamRankings,
+            last == null ? null : last.totalPoints,
+            last == null ? null : last.teamId
         );
     }
 
@@ -197,23 +220,32 @@ public class LeagueService {
         public String leagueName;
         public String leagueType;
         public List<TeamRankingInfo> rankings;
+        // Cursor for the next page; both null on the last page
+        public Integer nextAfterPoints;
+        public Long nextAfterTeamId;
 
         public LeagueDetailsInfo(Long leagueId, String leagueName, String leagueType, 
-                                List<TeamRankingInfo> rankings) {
+                                List<TeamRankingInfo> rankings, Integer nextAfterPoints, Long nextAfterTeamId) {
             this.leagueId = leagueId;
             this.leagueName = leagueName;
             this.leagueType = leagueType;
             this.rankings = rankings;
+            this.nextAfterPoints = nextAfterPoints;
+            this.nextAfterTeamId = nextAfterTeamId;
         }
     }
 
     public static class TeamRankingInfo {
+        public Long teamId;
         public String teamName;
         public Integer totalPoints;
+        public Integer rank;
 
-        public TeamRankingInfo(String teamName, Integer totalPoints) {
+        public TeamRankingInfo(Long teamId, String teamName, Integer totalPoints, Integer rank) {
+            this.teamId = teamId;
             this.teamName = teamName;
             this.totalPoints = totalPoints;
+            this.rank = rank;
         }
     }
 
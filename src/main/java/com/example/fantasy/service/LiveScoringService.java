@@ -0,0 +1,155 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.domain.GameWeek;
+import com.example.fantasy.domain.enums.GameWeekStatus;
+import com.example.fantasy.dto.FantasyDtos;
+import com.example.fantasy.exception.NotFoundException;
+import com.example.fantasy.repository.GameWeekRepository;
+import com.example.fantasy.repository.LineupSlotRepository;
+import com.example.fantasy.repository.PlayerPerformanceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Provisional in-gameweek points. Keeps a player -> starter slot reverse index for one gameweek
+ * so a recorded performance only touches the teams that start that player. Nothing here is
+ * persisted; season totals are still written by ScoringService.
+ */
+@Service
+@Transactional(readOnly = true)
+public class LiveScoringService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveScoringService.class);
+
+    private static final String CAPTAIN_SLOT = "CPT";
+
+    private final GameWeekRepository gwRepo;
+    private final LineupSlotRepository slotRepo;
+    private final PlayerPerformanceRepository perfRepo;
+
+    private volatile LiveIndex index;
+
+    public LiveScoringService(GameWeekRepository gwRepo, LineupSlotRepository slotRepo, PlayerPerformanceRepository perfRepo) {
+        this.gwRepo = gwRepo;
+        this.slotRepo = slotRepo;
+        this.perfRepo = perfRepo;
+    }
+
+    public FantasyDtos.LiveTeamPoints getLivePoints(Long teamId) {
+        GameWeek gw = gwRepo.findFirstByStatus(GameWeekStatus.ACTIVE)
+                .orElseThrow(() -> new NotFoundException("No active GameWeek"));
+        LiveIndex current = indexFor(gw.getId());
+        Integer idx = current.teamIndex.get(teamId);
+        int points = idx == null ? 0 : current.teamPoints.get(idx);
+        return new FantasyDtos.LiveTeamPoints(gw.getId(), teamId, points);
+    }
+
+    /**
+     * Re-reads the player's gameweek total and pushes the difference to every team starting the player.
+     * Uses the absolute total rather than a caller-supplied delta, so applying it twice is harmless.
+     * Runs after the performance commit, hence its own transaction.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public synchronized void onPerformanceRecorded(Long gameWeekId, Long playerId) {
+        LiveIndex current = index;
+        if (current == null || !current.gameWeekId.equals(gameWeekId)) return;
+        PlayerSlots player = current.players.get(playerId);
+        if (player == null) return; // nobody starts this player
+        int total = perfRepo.sumFantasyPointsByGameWeekIdAndPlayerId(gameWeekId, playerId).intValue();
+        int delta = total - player.points;
+        if (delta == 0) return;
+        player.points = total;
+        for (int slot : player.slots) {
+            current.teamPoints.addAndGet(slot >>> 1, delta * ((slot & 1) + 1));
+        }
+    }
+
+    // Lineups changed for this gameweek; the next read rebuilds from the database
+    public synchronized void invalidate(Long gameWeekId) {
+        LiveIndex current = index;
+        if (current != null && current.gameWeekId.equals(gameWeekId)) {
+            index = null;
+        }
+    }
+
+    // Every stored fantasy point may have moved (scoring rules changed); the next read rebuilds
+    public synchronized void invalidateAll() {
+        index = null;
+    }
+
+    private LiveIndex indexFor(Long gameWeekId) {
+        LiveIndex current = index;
+        if (current != null && current.gameWeekId.equals(gameWeekId)) {
+            return current;
+        }
+        return rebuild(gameWeekId);
+    }
+
+    private synchronized LiveIndex rebuild(Long gameWeekId) {
+        LiveIndex current = index;
+        if (current != null && current.gameWeekId.equals(gameWeekId)) {
+            return current;
+        }
+        long started = System.currentTimeMillis();
+        Map<Long, Integer> teamIndex = new HashMap<>();
+        Map<Long, List<Integer>> slotsByPlayer = new HashMap<>();
+        for (LineupSlotRepository.StarterSlotView s : slotRepo.findStartersByGameWeekId(gameWeekId)) {
+            int teamIdx = teamIndex.computeIfAbsent(s.getTeamId(), k -> teamIndex.size());
+            // Slot encoding: team index in the high bits, captain flag in the low bit
+            int slot = (teamIdx << 1) | (CAPTAIN_SLOT.equals(s.getSlotPosition()) ? 1 : 0);
+            slotsByPlayer.computeIfAbsent(s.getPlayerId(), k -> new ArrayList<>()).add(slot);
+        }
+
+        Map<Long, PlayerSlots> players = new HashMap<>(slotsByPlayer.size() * 2);
+        slotsByPlayer.forEach((playerId, slots) ->
+                players.put(playerId, new PlayerSlots(slots.stream().mapToInt(Integer::intValue).toArray())));
+
+        AtomicIntegerArray teamPoints = new AtomicIntegerArray(teamIndex.size());
+        perfRepo.sumFantasyPointsByGameWeekId(gameWeekId).forEach(v -> {
+            PlayerSlots player = players.get(v.getPlayerId());
+            if (player == null || v.getPoints() == null) return;
+            player.points = v.getPoints().intValue();
+            for (int slot : player.slots) {
+                teamPoints.addAndGet(slot >>> 1, player.points * ((slot & 1) + 1));
+            }
+        });
+
+        LiveIndex built = new LiveIndex(gameWeekId, teamIndex, players, teamPoints);
+        index = built;
+        logger.info("[LIVE_SCORING] Built index for GameWeek {}: {} teams, {} players in {} ms",
+                gameWeekId, teamIndex.size(), players.size(), System.currentTimeMillis() - started);
+        return built;
+    }
+
+    private static final class LiveIndex {
+        final Long gameWeekId;
+        final Map<Long, Integer> teamIndex;
+        final Map<Long, PlayerSlots> players;
+        final AtomicIntegerArray teamPoints;
+
+        LiveIndex(Long gameWeekId, Map<Long, Integer> teamIndex, Map<Long, PlayerSlots> players, AtomicIntegerArray teamPoints) {
+            this.gameWeekId = gameWeekId;
+            this.teamIndex = teamIndex;
+            this.players = players;
+            this.teamPoints = teamPoints;
+        }
+    }
+
+    private static final class PlayerSlots {
+        final int[] slots;
+        int points; // player's gameweek total already applied to the teams; guarded by the service lock
+
+        PlayerSlots(int[] slots) {
+            this.slots = slots;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.domain.BasketballPlayer;
+import com.example.fantasy.domain.Match;
+import com.example.fantasy.domain.PlayerPerformance;
+import com.example.fantasy.exception.NotFoundException;
+import com.example.fantasy.repository.BasketballPlayerRepository;
+import com.example.fantasy.repository.MatchRepository;
+import com.example.fantasy.repository.PlayerPerformanceRepository;
+import com.example.fantasy.util.TransactionUtil;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Single write path for player performances. Fantasy points are computed here, once, and stored
+ * on the row so scoring and pricing can aggregate the column instead of re-scoring raw stats.
+ */
+@Service
+@Transactional
+public class PerformanceService {
+
+    private final PlayerPerformanceRepository perfRepo;
+    private final MatchRepository matchRepo;
+    private final BasketballPlayerRepository playerRepo;
+    private final ScoringRuleService scoringRuleService;
+    private final LiveScoringService liveScoringService;
+    private final PlayerCatalogService catalogService;
+    private final PlayerFormService formService;
+
+    public PerformanceService(PlayerPerformanceRepository perfRepo, MatchRepository matchRepo,
+                              BasketballPlayerRepository playerRepo, ScoringRuleService scoringRuleService,
+                              LiveScoringService liveScoringService, PlayerCatalogService catalogService,
+                              PlayerFormService formService) {
+        this.perfRepo = perfRepo;
+        this.matchRepo = matchRepo;
+        this.playerRepo = playerRepo;
+        this.scoringRuleService = scoringRuleService;
+        this.liveScoringService = liveScoringService;
+        this.catalogService = catalogService;
+        this.formService = formService;
+    }
+
+    public PlayerPerformance upsertPerformance(Long matchId, Long playerId, Integer points, Integer rebounds, Integer assists,
+                                               Integer steals, Integer blocks, Integer turnovers, Integer threeMade) {
+        PlayerPerformance p = perfRepo.findByMatchIdAndPlayerId(matchId, playerId).orElseGet(() -> {
+            Match match = matchRepo.findById(matchId).orElseThrow(() -> new NotFoundException("Match not found"));
+            BasketballPlayer player = playerRepo.findById(playerId).orElseThrow(() -> new NotFoundException("Player not found"));
+            PlayerPerformance created = new PlayerPerformance();
+            created.setMatch(match);
+            created.setPlayer(player);
+            return created;
+        });
+        p.setPoints(points);
+        p.setRebounds(rebounds);
+        p.setAssists(assists);
+        p.setSteals(steals);
+        p.setBlocks(blocks);
+        p.setTurnovers(turnovers);
+        p.setThreeMade(threeMade);
+        p.setFantasyPoints(scoringRuleService.getWeights().calculateFantasyPoints(p));
+        // Flushed so the form refresh below sees the new numbers
+        PlayerPerformance saved = perfRepo.saveAndFlush(p);
+        formService.refresh(playerId);
+
+        Long gameWeekId = saved.getMatch().getGameWeek().getId();
+        TransactionUtil.runAfterCommit(() -> liveScoringService.onPerformanceRecorded(gameWeekId, playerId));
+        // Season total and form on the market
+        TransactionUtil.runAfterCommit(catalogService::invalidate);
+        return saved;
+    }
+}
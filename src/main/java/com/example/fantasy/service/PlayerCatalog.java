@@ -0,0 +1,347 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.domain.enums.PlayerPosition;
+import com.example.fantasy.repository.BasketballPlayerRepository;
+import com.example.fantasy.util.LongIntHashMap;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Immutable catalog of active players held as parallel arrays sorted by price (then id), so slot order is
+ * price order. Secondary indexes hold ascending slot lists per team and per position; a price range is a
+ * binary search on the sorted cents array, and the same search narrows an index list to the range.
+ * For the market sorts each stat also gets a pre-sorted slot order, ascending by (key, player id), so a
+ * keyset cursor is found by binary search and any page costs the same as the first.
+ */
+final class PlayerCatalog {
+
+    private static final PlayerPosition[] POSITIONS = PlayerPosition.values();
+    private static final int[] NO_SLOTS = new int[0];
+
+    private final long[] playerIds;
+    private final String[] firstNames;
+    private final String[] lastNames;
+    private final byte[] positions;
+    private final long[] teamIds;
+    private final String[] teamNames;
+    private final BigDecimal[] prices;
+    private final long[] priceCents;
+    private final int[] totalPoints;
+    // Form in thousandths of a point; players with no performances sort lowest
+    private final long[] formMilli;
+    private final Double[] forms;
+    private final String[] sortNames;
+    // Players without a price sort first and never match a price filter
+    private final int unpriced;
+    private final Map<Long, int[]> byTeam;
+    private final int[][] byPosition;
+    private LongIntHashMap slotsByPlayer;
+    private int[] priceOrder;
+    private int[] pointsOrder;
+    private int[] formOrder;
+    private int[] nameOrder;
+
+    private PlayerCatalog(int size, int unpriced, Map<Long, int[]> byTeam, int[][] byPosition) {
+        this.playerIds = new long[size];
+        this.firstNames = new String[size];
+        this.lastNames = new String[size];
+        this.positions = new byte[size];
+        this.teamIds = new long[size];
+        this.teamNames = new String[size];
+        this.prices = new BigDecimal[size];
+        this.priceCents = new long[size];
+        this.totalPoints = new int[size];
+        this.formMilli = new long[size];
+        this.forms = new Double[size];
+        this.sortNames = new String[size];
+        this.unpriced = unpriced;
+        this.byTeam = byTeam;
+        this.byPosition = byPosition;
+    }
+
+    static PlayerCatalog of(List<BasketballPlayerRepository.CatalogRowView> rows,
+                            List<PlayerFormService.PlayerForm> forms) {
+        List<BasketballPlayerRepository.CatalogRowView> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator
+                .comparing(BasketballPlayerRepository.CatalogRowView::getMarketValue, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(BasketballPlayerRepository.CatalogRowView::getPlayerId));
+
+        int n = sorted.size();
+        int unpriced = 0;
+        Map<Long, IntList> teams = new HashMap<>();
+        IntList[] byPosition = new IntList[POSITIONS.length];
+        Arrays.setAll(byPosition, i -> new IntList());
+        for (int i = 0; i < n; i++) {
+            BasketballPlayerRepository.CatalogRowView r = sorted.get(i);
+            if (r.getMarketValue() == null) unpriced++;
+            teams.computeIfAbsent(r.getTeamId(), k -> new IntList()).add(i);
+            byPosition[r.getPosition().ordinal()].add(i);
+        }
+
+        Map<Long, int[]> byTeam = new HashMap<>(teams.size() * 2);
+        teams.forEach((teamId, slots) -> byTeam.put(teamId, slots.toArray()));
+        int[][] positionSlots = new int[POSITIONS.length][];
+        for (int p = 0; p < POSITIONS.length; p++) {
+            positionSlots[p] = byPosition[p].toArray();
+        }
+
+        PlayerCatalog c = new PlayerCatalog(n, unpriced, byTeam, positionSlots);
+        for (int i = 0; i < n; i++) {
+            BasketballPlayerRepository.CatalogRowView r = sorted.get(i);
+            c.playerIds[i] = r.getPlayerId();
+            c.firstNames[i] = r.getFirstName();
+            c.lastNames[i] = r.getLastName();
+            c.positions[i] = (byte) r.getPosition().ordinal();
+            c.teamIds[i] = r.getTeamId();
+            c.teamNames[i] = r.getTeamName();
+            c.prices[i] = r.getMarketValue();
+            c.priceCents[i] = r.getMarketValue() == null ? Long.MIN_VALUE
+                    : r.getMarketValue().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+            c.sortNames[i] = (r.getLastName() + " " + r.getFirstName()).toLowerCase(Locale.ROOT);
+            c.formMilli[i] = Long.MIN_VALUE;
+        }
+
+        LongIntHashMap slots = new LongIntHashMap(n);
+        for (int i = 0; i < n; i++) {
+            slots.put(c.playerIds[i], i);
+        }
+        c.slotsByPlayer = slots;
+        for (PlayerFormService.PlayerForm f : forms) {
+            if (!slots.containsKey(f.playerId())) continue; // inactive player
+            int slot = slots.get(f.playerId());
+            c.totalPoints[slot] = f.seasonPoints();
+            if (f.form() != null) {
+                c.forms[slot] = f.form();
+                c.formMilli[slot] = Math.round(f.form() * 1000);
+            }
+        }
+        c.priceOrder = new int[n];
+        Arrays.setAll(c.priceOrder, i -> i);
+        c.pointsOrder = c.orderBy(slot -> c.totalPoints[slot]);
+        c.formOrder = c.orderBy(slot -> c.formMilli[slot]);
+        c.nameOrder = sortedSlots(n, Comparator.<Integer, String>comparing(slot -> c.sortNames[slot])
+                .thenComparingLong(slot -> c.playerIds[slot]));
+        return c;
+    }
+
+    int size() {
+        return playerIds.length;
+    }
+
+    /**
+     * Slots matching the filters, in price order. Costs two binary searches plus, when both team and
+     * position are given, one pass over the shorter of their index lists within the price range.
+     */
+    Selection select(Long teamId, PlayerPosition position, BigDecimal minPrice, BigDecimal maxPrice) {
+        int lo = 0;
+        int hi = size();
+        if (minPrice != null || maxPrice != null) {
+            lo = unpriced;
+            if (minPrice != null) {
+                lo = lowerBound(priceCents, lo, hi, cents(minPrice, RoundingMode.CEILING));
+            }
+            if (maxPrice != null) {
+                hi = Math.max(lo, lowerBound(priceCents, lo, hi, cents(maxPrice, RoundingMode.FLOOR) + 1));
+            }
+        }
+
+        Selection byTeamSlots = teamId == null ? null : narrow(byTeam.getOrDefault(teamId, NO_SLOTS), lo, hi);
+        Selection byPositionSlots = position == null ? null : narrow(byPosition[position.ordinal()], lo, hi);
+        if (byTeamSlots == null && byPositionSlots == null) {
+            return new Selection(null, lo, hi);
+        }
+        if (byTeamSlots == null) return byPositionSlots;
+        if (byPositionSlots == null) return byTeamSlots;
+
+        // Walk the shorter list and check the other attribute directly on the slot
+        boolean teamShorter = byTeamSlots.size() <= byPositionSlots.size();
+        Selection shorter = teamShorter ? byTeamSlots : byPositionSlots;
+        int[] matched = new int[shorter.size()];
+        int count = 0;
+        for (int i = 0; i < shorter.size(); i++) {
+            int slot = shorter.slotAt(i);
+            boolean matches = teamShorter ? positions[slot] == position.ordinal() : teamIds[slot] == teamId;
+            if (matches) matched[count++] = slot;
+        }
+        return new Selection(matched, 0, count);
+    }
+
+    /** Per-slot check of the filters, for scans that walk a sort order rather than an index. */
+    IntPredicate filter(Long teamId, PlayerPosition position, BigDecimal minPrice, BigDecimal maxPrice) {
+        long minCents = minPrice == null ? Long.MIN_VALUE : cents(minPrice, RoundingMode.CEILING);
+        long maxCents = maxPrice == null ? Long.MAX_VALUE : cents(maxPrice, RoundingMode.FLOOR);
+        boolean priced = minPrice != null || maxPrice != null;
+        return slot -> (teamId == null || teamIds[slot] == teamId)
+                && (position == null || positions[slot] == position.ordinal())
+                && (!priced || (prices[slot] != null && priceCents[slot] >= minCents && priceCents[slot] <= maxCents));
+    }
+
+    /**
+     * All slots ascending by the sort's (key, player id). Price order is slot order; ownership changes
+     * between rebuilds, so its order is built from the given counts and cached by the caller.
+     */
+    int[] order(PlayerCatalogService.MarketSort sort, PlayerOwnershipService.Ownership owned) {
+        return switch (sort) {
+            case PRICE -> priceOrder;
+            case TOTAL_POINTS -> pointsOrder;
+            case FORM -> formOrder;
+            case NAME -> nameOrder;
+            case OWNERSHIP -> orderBy(slot -> owned.ownerCount(playerIds[slot]));
+        };
+    }
+
+    /** The sort key of a slot as the cursor stores it; name sorts compare {@link #sortName} instead. */
+    long key(PlayerCatalogService.MarketSort sort, int slot, PlayerOwnershipService.Ownership owned) {
+        return switch (sort) {
+            case PRICE -> priceCents[slot];
+            case TOTAL_POINTS -> totalPoints[slot];
+            case FORM -> formMilli[slot];
+            case OWNERSHIP -> owned.ownerCount(playerIds[slot]);
+            case NAME -> 0;
+        };
+    }
+
+    String sortName(int slot) {
+        return sortNames[slot];
+    }
+
+    /**
+     * Index into {@code order} of the first slot strictly after the cursor position, in ascending
+     * order. Binary search, so resuming deep in the list is O(log n).
+     */
+    int seekAfter(int[] order, PlayerCatalogService.MarketCursor cursor, PlayerOwnershipService.Ownership owned) {
+        int lo = 0;
+        int hi = order.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareToCursor(order[mid], cursor, owned) <= 0) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Index into {@code order} of the last slot strictly before the cursor position, or -1. */
+    int seekBefore(int[] order, PlayerCatalogService.MarketCursor cursor, PlayerOwnershipService.Ownership owned) {
+        int lo = 0;
+        int hi = order.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareToCursor(order[mid], cursor, owned) < 0) lo = mid + 1; else hi = mid;
+        }
+        return lo - 1;
+    }
+
+    private int compareToCursor(int slot, PlayerCatalogService.MarketCursor cursor, PlayerOwnershipService.Ownership owned) {
+        int c = cursor.sort() == PlayerCatalogService.MarketSort.NAME
+                ? sortNames[slot].compareTo(cursor.name())
+                : Long.compare(key(cursor.sort(), slot, owned), cursor.key());
+        return c != 0 ? c : Long.compare(playerIds[slot], cursor.playerId());
+    }
+
+    /** Slot of the player, or -1 if it is not in the catalog (inactive or unknown). */
+    int slotOf(long playerId) {
+        return slotsByPlayer.containsKey(playerId) ? slotsByPlayer.get(playerId) : -1;
+    }
+
+    long playerId(int slot) {
+        return playerIds[slot];
+    }
+
+    PlayerCatalogService.CatalogEntry entry(int slot, double ownershipPct) {
+        return new PlayerCatalogService.CatalogEntry(playerIds[slot], firstNames[slot], lastNames[slot],
+                POSITIONS[positions[slot]], teamIds[slot], teamNames[slot], prices[slot], ownershipPct,
+                totalPoints[slot], forms[slot]);
+    }
+
+    private int[] orderBy(IntToLongFunction key) {
+        return sortedSlots(size(), Comparator.<Integer>comparingLong(key::applyAsLong)
+                .thenComparingLong(slot -> playerIds[slot]));
+    }
+
+    private static int[] sortedSlots(int n, Comparator<Integer> comparator) {
+        Integer[] boxed = new Integer[n];
+        Arrays.setAll(boxed, i -> i);
+        Arrays.sort(boxed, comparator);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = boxed[i];
+        }
+        return order;
+    }
+
+    // The part of an ascending slot list that falls inside [lo, hi)
+    private static Selection narrow(int[] slots, int lo, int hi) {
+        int from = lowerBound(slots, lo);
+        int to = Math.max(from, lowerBound(slots, hi));
+        return new Selection(slots, from, to);
+    }
+
+    private static long cents(BigDecimal price, RoundingMode rounding) {
+        return price.setScale(2, rounding).unscaledValue().longValue();
+    }
+
+    // First index in [from, to) whose value is >= key
+    private static int lowerBound(long[] values, int from, int to, long key) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    private static int lowerBound(int[] values, int key) {
+        int lo = 0;
+        int hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /** A run of catalog slots: {@code slots[from..to)} of an index list, or the range itself when slots is null. */
+    static final class Selection {
+        private final int[] slots;
+        private final int from;
+        private final int to;
+
+        Selection(int[] slots, int from, int to) {
+            this.slots = slots;
+            this.from = from;
+            this.to = to;
+        }
+
+        int size() {
+            return to - from;
+        }
+
+        int slotAt(int i) {
+            return slots == null ? from + i : slots[from + i];
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
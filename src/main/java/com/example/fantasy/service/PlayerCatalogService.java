@@ -0,0 +1,249 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.domain.enums.PlayerPosition;
+import com.example.fantasy.exception.ValidationException;
+import com.example.fantasy.repository.BasketballPlayerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+
+/**
+ * Serves the player market from an in-memory {@link PlayerCatalog}. The catalog is rebuilt lazily after
+ * admin player/team changes, price updates and new performances invalidate it; ownership comes from a short-lived cached
+ * snapshot. A warm request touches neither the database nor players outside the filtered index range.
+ * Deliberately not transactional, so a cache hit does not even borrow a connection.
+ */
+@Service
+public class PlayerCatalogService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlayerCatalogService.class);
+
+    private static final int MAX_PAGE_SIZE = 200;
+    // Ownership moves with every transfer; the market list may lag it by this much
+    private static final long OWNERSHIP_MAX_AGE_MS = 30_000;
+
+    private final BasketballPlayerRepository playerRepo;
+    private final PlayerFormService formService;
+    private final PlayerOwnershipService ownershipService;
+
+    private volatile PlayerCatalog catalog;
+    // Bumped by every invalidate(); a build that started before the latest bump may miss that change
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private volatile CachedOwnership ownership;
+    // Ownership sort order for the current catalog and ownership snapshot
+    private volatile OwnershipOrder ownershipOrder;
+
+    public PlayerCatalogService(BasketballPlayerRepository playerRepo, PlayerFormService formService,
+                                PlayerOwnershipService ownershipService) {
+        this.playerRepo = playerRepo;
+        this.formService = formService;
+        this.ownershipService = ownershipService;
+    }
+
+    /**
+     * One page of active players in price order. Team, position and price narrow the catalog through its
+     * indexes; the ownership bounds, when given, are checked only on the narrowed slots.
+     */
+    public List<CatalogEntry> list(Long teamId, PlayerPosition position, BigDecimal minPrice, BigDecimal maxPrice,
+                                   Double ownershipGte, Double ownershipLte, int page, int size) {
+        int pageSize = Math.min(Math.max(size, 0), MAX_PAGE_SIZE);
+        long skip = (long) Math.max(page, 0) * pageSize;
+        PlayerCatalog c = catalog();
+        PlayerOwnershipService.Ownership owned = ownership();
+        PlayerCatalog.Selection selection = c.select(teamId, position, minPrice, maxPrice);
+
+        List<CatalogEntry> result = new ArrayList<>(Math.min(pageSize, selection.size()));
+        boolean ownershipFilter = ownershipGte != null || ownershipLte != null;
+        if (!ownershipFilter) {
+            // Straight to the page: no scan over the rows before it
+            for (long i = skip; i < selection.size() && result.size() < pageSize; i++) {
+                int slot = selection.slotAt((int) i);
+                result.add(c.entry(slot, ownershipPct(owned, c.playerId(slot))));
+            }
+            return result;
+        }
+
+        long matched = 0;
+        for (int i = 0; i < selection.size() && result.size() < pageSize; i++) {
+            int slot = selection.slotAt(i);
+            double pct = ownershipPct(owned, c.playerId(slot));
+            if ((ownershipGte != null && pct < ownershipGte) || (ownershipLte != null && pct > ownershipLte)) {
+                continue;
+            }
+            if (matched++ >= skip) {
+                result.add(c.entry(slot, pct));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * One page of the player market sorted by {@code sort}, ties broken by player id. {@code cursor} is the
+     * {@code nextCursor} of the previous page; it carries the last row's sort key, so the next page starts
+     * with a binary search into the pre-sorted order and costs the same at any depth.
+     */
+    public MarketPage market(MarketSort sort, boolean descending, String cursor, Long teamId, PlayerPosition position,
+                             BigDecimal minPrice, BigDecimal maxPrice, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        MarketCursor after = cursor == null || cursor.isBlank() ? null : MarketCursor.decode(cursor);
+        if (after != null && (after.sort() != sort || after.descending() != descending)) {
+            throw new ValidationException("Cursor was issued for a different sort");
+        }
+
+        PlayerCatalog c = catalog();
+        PlayerOwnershipService.Ownership owned = ownership();
+        int[] order = sort == MarketSort.OWNERSHIP ? ownershipOrder(c, owned) : c.order(sort, owned);
+        IntPredicate filter = c.filter(teamId, position, minPrice, maxPrice);
+
+        // Descending walks the ascending order backwards
+        int step = descending ? -1 : 1;
+        int i;
+        if (after == null) {
+            i = descending ? order.length - 1 : 0;
+        } else {
+            i = descending ? c.seekBefore(order, after, owned) : c.seekAfter(order, after, owned);
+        }
+
+        List<CatalogEntry> items = new ArrayList<>(pageSize);
+        int last = -1;
+        boolean more = false;
+        for (; i >= 0 && i < order.length; i += step) {
+            int slot = order[i];
+            if (!filter.test(slot)) continue;
+            if (items.size() == pageSize) {
+                more = true;
+                break;
+            }
+            items.add(c.entry(slot, ownershipPct(owned, c.playerId(slot))));
+            last = slot;
+        }
+        String next = more
+                ? new MarketCursor(sort, descending, c.key(sort, last, owned), c.sortName(last), c.playerId(last)).encode()
+                : null;
+        return new MarketPage(items, next);
+    }
+
+    /** Catalog rows for the given players in the given order; players not in the catalog are skipped. */
+    public List<CatalogEntry> entries(List<Long> playerIds) {
+        PlayerCatalog c = catalog();
+        PlayerOwnershipService.Ownership owned = ownership();
+        List<CatalogEntry> result = new ArrayList<>(playerIds.size());
+        for (Long playerId : playerIds) {
+            int slot = c.slotOf(playerId);
+            if (slot >= 0) {
+                result.add(c.entry(slot, ownershipPct(owned, playerId)));
+            }
+        }
+        return result;
+    }
+
+    // A player was added, edited or removed, a team renamed, prices moved or points changed; the next read rebuilds
+    public void invalidate() {
+        catalogVersion.incrementAndGet();
+        catalog = null;
+    }
+
+    private PlayerCatalog catalog() {
+        PlayerCatalog c = catalog;
+        if (c == null) {
+            synchronized (this) {
+                c = catalog;
+                if (c == null) {
+                    long started = System.currentTimeMillis();
+                    long version = catalogVersion.get();
+                    c = PlayerCatalog.of(playerRepo.findCatalogRows(), formService.findAll());
+                    catalog = c;
+                    // Invalidated while loading: this read still uses it, the next one rebuilds
+                    if (catalogVersion.get() != version) {
+                        catalog = null;
+                    }
+                    logger.info("[PLAYERS] Catalog rebuilt: {} players in {} ms", c.size(), System.currentTimeMillis() - started);
+                }
+            }
+        }
+        return c;
+    }
+
+    private PlayerOwnershipService.Ownership ownership() {
+        CachedOwnership cached = ownership;
+        if (cached == null || System.currentTimeMillis() - cached.loadedAt() > OWNERSHIP_MAX_AGE_MS) {
+            synchronized (this) {
+                cached = ownership;
+                if (cached == null || System.currentTimeMillis() - cached.loadedAt() > OWNERSHIP_MAX_AGE_MS) {
+                    cached = new CachedOwnership(ownershipService.snapshot(), System.currentTimeMillis());
+                    ownership = cached;
+                }
+            }
+        }
+        return cached.ownership();
+    }
+
+    private int[] ownershipOrder(PlayerCatalog c, PlayerOwnershipService.Ownership owned) {
+        OwnershipOrder cached = ownershipOrder;
+        if (cached == null || cached.catalog() != c || cached.ownership() != owned) {
+            // Rebuilt at most once per catalog or ownership refresh; a racing duplicate build is harmless
+            cached = new OwnershipOrder(c, owned, c.order(MarketSort.OWNERSHIP, owned));
+            ownershipOrder = cached;
+        }
+        return cached.order();
+    }
+
+    // Rounded to two decimals before filtering, as the list has always shown it
+    private static double ownershipPct(PlayerOwnershipService.Ownership owned, long playerId) {
+        return Math.round(owned.percentage(playerId) * 100.0) / 100.0;
+    }
+
+    private record CachedOwnership(PlayerOwnershipService.Ownership ownership, long loadedAt) {}
+
+    private record OwnershipOrder(PlayerCatalog catalog, PlayerOwnershipService.Ownership ownership, int[] order) {}
+
+    public enum MarketSort { PRICE, OWNERSHIP, TOTAL_POINTS, FORM, NAME }
+
+    /** Position after the last row of a page: the sort, its direction, the row's key and its player id. */
+    record MarketCursor(MarketSort sort, boolean descending, long key, String name, long playerId) {
+
+        String encode() {
+            String keyPart = sort == MarketSort.NAME ? name : Long.toString(key);
+            String raw = sort.name() + '|' + (descending ? 'D' : 'A') + '|' + playerId + '|' + keyPart;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static MarketCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|", 4);
+                MarketSort sort = MarketSort.valueOf(parts[0]);
+                boolean descending = "D".equals(parts[1]);
+                long playerId = Long.parseLong(parts[2]);
+                return sort == MarketSort.NAME
+                        ? new MarketCursor(sort, descending, 0, parts[3], playerId)
+                        : new MarketCursor(sort, descending, Long.parseLong(parts[3]), null, playerId);
+            } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                throw new ValidationException("Invalid cursor");
+            }
+        }
+    }
+
+    public record MarketPage(List<CatalogEntry> items, String nextCursor) {}
+
+    public record CatalogEntry(
+            Long id,
+            String firstName,
+            String lastName,
+            PlayerPosition position,
+            Long teamId,
+            String teamName,
+            BigDecimal price,
+            double ownershipPct,
+            int totalPoints,
+            Double form // average of the last three performances; null before the player's first
+    ) {}
+}
@@ -0,0 +1,94 @@
+package com.example.fantasy.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Rolling form per player, kept in player_form: the last few fantasy scores (newest first), form over the
+ * last three, season points and appearances, and the current streak. A recorded or corrected performance
+ * refreshes only that player's row, so pricing, the market and projections read form as stored values
+ * instead of re-scanning performances.
+ */
+@Service
+@Transactional
+public class PlayerFormService {
+
+    static final int RECENT_WINDOW = 5;
+    static final int FORM_WINDOW = 3;
+
+    // Streak: consecutive most recent performances at or above the player's season average
+    private static final String REFRESH_SQL =
+            "INSERT INTO player_form (player_id, recent_points, form, appearances, season_points, streak, updated_at) " +
+            "SELECT r.player_id, array_agg(r.fp ORDER BY r.recency) FILTER (WHERE r.recency <= " + RECENT_WINDOW + "), " +
+            "CAST(AVG(r.fp) FILTER (WHERE r.recency <= " + FORM_WINDOW + ") AS DOUBLE PRECISION), COUNT(*), SUM(r.fp), " +
+            "COALESCE(MIN(r.recency) FILTER (WHERE r.fp < r.season_avg) - 1, COUNT(*)), now() " +
+            "FROM (SELECT pp.player_id, COALESCE(pp.fantasy_points, 0) AS fp, ROW_NUMBER() OVER (PARTITION BY pp.player_id " +
+            "ORDER BY gw.number DESC, m.kickoff DESC, pp.id DESC) AS recency, " +
+            "AVG(COALESCE(pp.fantasy_points, 0)) OVER (PARTITION BY pp.player_id) AS season_avg " +
+            "FROM player_performance pp JOIN match m ON m.id = pp.match_id JOIN game_week gw ON gw.id = m.game_week_id%s) r " +
+            "GROUP BY r.player_id " +
+            "ON CONFLICT (player_id) DO UPDATE SET recent_points = EXCLUDED.recent_points, form = EXCLUDED.form, " +
+            "appearances = EXCLUDED.appearances, season_points = EXCLUDED.season_points, streak = EXCLUDED.streak, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private static final String SELECT_SQL =
+            "SELECT player_id, recent_points, form, appearances, season_points, streak FROM player_form";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PlayerFormService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Recomputes one player's row from their performances; an index range read on player_performance.
+     * The caller must have flushed the performance it just saved.
+     */
+    public void refresh(Long playerId) {
+        jdbcTemplate.update(String.format(REFRESH_SQL, " WHERE pp.player_id = ?"), playerId);
+    }
+
+    // Every player at once, after a scoring rule change rescored all performances
+    public int refreshAll() {
+        return jdbcTemplate.update(String.format(REFRESH_SQL, ""));
+    }
+
+    @Transactional(readOnly = true)
+    public List<PlayerForm> findAll() {
+        return jdbcTemplate.query(SELECT_SQL, (rs, i) -> mapRow(rs));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<PlayerForm> find(Long playerId) {
+        return jdbcTemplate.query(SELECT_SQL + " WHERE player_id = ?", (rs, i) -> mapRow(rs), playerId)
+                .stream().findFirst();
+    }
+
+    private static PlayerForm mapRow(ResultSet rs) throws SQLException {
+        Array recent = rs.getArray("recent_points");
+        Integer[] boxed = recent == null ? new Integer[0] : (Integer[]) recent.getArray();
+        int[] recentPoints = new int[boxed.length];
+        for (int i = 0; i < boxed.length; i++) {
+            recentPoints[i] = boxed[i] == null ? 0 : boxed[i];
+        }
+        double form = rs.getDouble("form");
+        return new PlayerForm(rs.getLong("player_id"), recentPoints, rs.wasNull() ? null : form,
+                rs.getInt("appearances"), rs.getInt("season_points"), rs.getInt("streak"));
+    }
+
+    public record PlayerForm(
+            long playerId,
+            int[] recentPoints, // newest first, up to RECENT_WINDOW
+            Double form,        // average of the last FORM_WINDOW performances
+            int appearances,
+            int seasonPoints,
+            int streak
+    ) {}
+}
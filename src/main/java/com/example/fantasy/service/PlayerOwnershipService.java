@@ -0,0 +1,81 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.repository.FantasyTeamRepository;
+import com.example.fantasy.repository.PlayerOwnershipRepository;
+import com.example.fantasy.util.LongIntHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Owner counts per player, kept in player_ownership. Squad changes adjust the counts inside their own
+ * transaction, so readers get every player's ownership from one query instead of a count per player.
+ */
+@Service
+@Transactional
+public class PlayerOwnershipService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlayerOwnershipService.class);
+
+    private final PlayerOwnershipRepository ownershipRepo;
+    private final FantasyTeamRepository teamRepo;
+
+    public PlayerOwnershipService(PlayerOwnershipRepository ownershipRepo, FantasyTeamRepository teamRepo) {
+        this.ownershipRepo = ownershipRepo;
+        this.teamRepo = teamRepo;
+    }
+
+    public void playersAdded(Collection<Long> playerIds) {
+        if (!playerIds.isEmpty()) {
+            ownershipRepo.adjustOwnerCounts(playerIds, 1);
+        }
+    }
+
+    public void playerTransferred(Long playerOutId, Long playerInId) {
+        ownershipRepo.transferOwner(playerOutId, playerInId);
+    }
+
+    public int recountAll() {
+        int changed = ownershipRepo.recountAll();
+        logger.info("[OWNERSHIP] Recounted player ownership: {} players changed", changed);
+        return changed;
+    }
+
+    /** Owner counts for all players plus the team count, in two queries. */
+    @Transactional(readOnly = true)
+    public Ownership snapshot() {
+        List<PlayerOwnershipRepository.OwnershipView> rows = ownershipRepo.findAllOwnership();
+        LongIntHashMap counts = new LongIntHashMap(rows.size());
+        for (PlayerOwnershipRepository.OwnershipView row : rows) {
+            counts.put(row.getPlayerId(), row.getOwnerCount() == null ? 0 : row.getOwnerCount());
+        }
+        return new Ownership(counts, teamRepo.count());
+    }
+
+    public static final class Ownership {
+        private final LongIntHashMap ownerCounts;
+        private final long totalTeams;
+
+        Ownership(LongIntHashMap ownerCounts, long totalTeams) {
+            this.ownerCounts = ownerCounts;
+            this.totalTeams = totalTeams;
+        }
+
+        public int ownerCount(long playerId) {
+            return ownerCounts.get(playerId);
+        }
+
+        public long totalTeams() {
+            return totalTeams;
+        }
+
+        // Share of all fantasy teams that own the player, 0-100
+        public double percentage(long playerId) {
+            return (ownerCounts.get(playerId) * 100.0) / Math.max(1, totalTeams);
+        }
+    }
+}
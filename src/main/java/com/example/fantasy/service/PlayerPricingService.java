@@ -1,199 +1,202 @@
 package com.example.fantasy.service;
 
-import com.example.fantasy.domain.BasketballPlayer;
-import com.example.fantasy.domain.GameWeek;
-import com.example.fantasy.domain.PlayerPerformance;
-import com.example.fantasy.domain.PlayerPriceHistory;
+import com.example.fantasy.exception.NotFoundException;
 import com.example.fantasy.repository.*;
+import com.example.fantasy.util.PricingParameters;
+import com.example.fantasy.util.TransactionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Gameweek price updates as a fixed number of statements: active players, recent form and ownership are
+ * read in grouped queries, new prices are computed in memory, and the market value updates and
+ * price history rows are written with JDBC batches. Between gameweek runs, prices also drift with net
+ * transfer volume (see {@link TransferVolumeService}).
+ */
 @Service
 @Transactional
 public class PlayerPricingService {
 
-    private final BasketballPlayerRepository playerRepo;
-    private final PlayerPriceHistoryRepository priceHistoryRepo;
-    private final PlayerPerformanceRepository performanceRepo;
-    private final FantasyTeamPlayerRepository teamPlayerRepo;
-    private final FantasyTeamRepository teamRepo;
+    private static final Logger logger = LoggerFactory.getLogger(PlayerPricingService.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final PlayerFormService formService;
+    private final PlayerOwnershipService ownershipService;
+    private final PlayerCatalogService catalogService;
     private final GameWeekRepository gameWeekRepo;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Pricing constants; the gameweek rule and its tunable thresholds live in PricingParameters
+    private static final PricingParameters PARAMETERS = PricingParameters.DEFAULTS;
+    private static final BigDecimal MIN_PRICE = BigDecimal.valueOf(PricingParameters.MIN_PRICE);
+    private static final BigDecimal MAX_PRICE = BigDecimal.valueOf(PricingParameters.MAX_PRICE);
+    static final double DEFAULT_PERFORMANCE_SCORE = 15.0; // players with no performances yet
+    // Transfer-driven moves: one step each time net transfers since the last move reach the threshold
+    private static final BigDecimal TRANSFER_PRICE_STEP = new BigDecimal("0.1");
+    private static final long MIN_TRANSFER_THRESHOLD = 20;
+    private static final double TRANSFER_THRESHOLD_SHARE = 0.01; // of all fantasy teams
 
-    // Pricing constants
-    private static final BigDecimal PRICE_CHANGE_FACTOR = new BigDecimal("0.10"); // 10% max change
-    private static final BigDecimal MIN_PRICE = new BigDecimal("4.0");
-    private static final BigDecimal MAX_PRICE = new BigDecimal("15.0");
-    private static final double HIGH_OWNERSHIP_THRESHOLD = 20.0; // 20%
-    private static final double LOW_OWNERSHIP_THRESHOLD = 5.0;   // 5%
-    private static final int HIGH_PERFORMANCE_THRESHOLD = 25; // fantasy points
-    private static final int LOW_PERFORMANCE_THRESHOLD = 5;   // fantasy points
-
-    public PlayerPricingService(BasketballPlayerRepository playerRepo,
-                                PlayerPriceHistoryRepository priceHistoryRepo,
-                                PlayerPerformanceRepository performanceRepo,
-                                FantasyTeamPlayerRepository teamPlayerRepo,
-                                FantasyTeamRepository teamRepo,
-                                GameWeekRepository gameWeekRepo) {
-        this.playerRepo = playerRepo;
-        this.priceHistoryRepo = priceHistoryRepo;
-        this.performanceRepo = performanceRepo;
-        this.teamPlayerRepo = teamPlayerRepo;
-        this.teamRepo = teamRepo;
+    public PlayerPricingService(PlayerFormService formService,
+                                PlayerOwnershipService ownershipService,
+                                PlayerCatalogService catalogService,
+                                GameWeekRepository gameWeekRepo,
+                                JdbcTemplate jdbcTemplate) {
+        this.formService = formService;
+        this.ownershipService = ownershipService;
+        this.catalogService = catalogService;
         this.gameWeekRepo = gameWeekRepo;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     public void updatePricesForGameWeek(Long gameWeekId) {
-        List<BasketballPlayer> activePlayers = playerRepo.findByActiveTrue();
-        
-        for (BasketballPlayer player : activePlayers) {
-            updatePlayerPrice(player, gameWeekId);
+        long started = System.currentTimeMillis();
+        if (!gameWeekRepo.existsById(gameWeekId)) {
+            throw new NotFoundException("GameWeek not found");
         }
-    }
 
-    private void updatePlayerPrice(BasketballPlayer player, Long gameWeekId) {
-        BigDecimal currentPrice = player.getMarketValue();
-        BigDecimal newPrice = calculateNewPrice(player, gameWeekId);
-        
-        // Only update if price changed significantly (more than 0.1)
-        BigDecimal priceDifference = newPrice.subtract(currentPrice).abs();
-        if (priceDifference.compareTo(new BigDecimal("0.1")) >= 0) {
-            
-            // Update player's market value
-            player.setMarketValue(newPrice);
-            playerRepo.save(player);
-            
-            // Record price change history
-            recordPriceChange(player, gameWeekId, currentPrice, newPrice);
+        // Reads: form and ownership for all players, then the priced active players, locked in id order like
+        // the transfer path so a transfer-driven move cannot land between the read and the write
+        Map<Long, Double> form = new HashMap<>();
+        for (PlayerFormService.PlayerForm f : formService.findAll()) {
+            if (f.form() != null) form.put(f.playerId(), f.form());
         }
-    }
+        PlayerOwnershipService.Ownership ownership = ownershipService.snapshot();
+        Map<Long, BigDecimal> prices = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT id, market_value FROM basketball_player " +
+                "WHERE active = true AND market_value IS NOT NULL ORDER BY id FOR UPDATE",
+                (RowCallbackHandler) rs -> prices.put(rs.getLong("id"), rs.getBigDecimal("market_value")));
 
-    private BigDecimal calculateNewPrice(BasketballPlayer player, Long gameWeekId) {
-        BigDecimal currentPrice = player.getMarketValue();
-        
-        // Calculate performance score for recent matches
-        double performanceScore = calculatePerformanceScore(player, gameWeekId);
-        
-        // Calculate ownership percentage
-        double ownershipPercentage = calculateOwnershipPercentage(player);
-        
-        // Determine price multiplier based on performance and ownership
-        double multiplier = calculatePriceMultiplier(performanceScore, ownershipPercentage);
-        
-        // Apply multiplier with maximum change limit
-        BigDecimal priceChange = currentPrice.multiply(new BigDecimal(multiplier - 1.0));
-        BigDecimal maxChange = currentPrice.multiply(PRICE_CHANGE_FACTOR);
-        
-        // Limit price change to maximum allowed
-        if (priceChange.abs().compareTo(maxChange) > 0) {
-            priceChange = priceChange.signum() >= 0 ? maxChange : maxChange.negate();
-        }
-        
-        BigDecimal newPrice = currentPrice.add(priceChange);
-        
-        // Ensure price stays within bounds
-        if (newPrice.compareTo(MIN_PRICE) < 0) {
-            newPrice = MIN_PRICE;
-        } else if (newPrice.compareTo(MAX_PRICE) > 0) {
-            newPrice = MAX_PRICE;
-        }
-        
-        return newPrice.setScale(2, RoundingMode.HALF_UP);
-    }
+        List<Object[]> priceUpdates = new ArrayList<>();
+        List<Object[]> historyRows = new ArrayList<>();
+        Timestamp now = Timestamp.from(Instant.now());
+        for (Map.Entry<Long, BigDecimal> player : prices.entrySet()) {
+            Long playerId = player.getKey();
+            BigDecimal currentPrice = player.getValue();
+            double performanceScore = form.getOrDefault(playerId, DEFAULT_PERFORMANCE_SCORE);
+            double ownershipPercentage = ownership.percentage(playerId);
+            BigDecimal newPrice = PARAMETERS.reprice(currentPrice, performanceScore, ownershipPercentage);
+            if (newPrice.compareTo(currentPrice) == 0) continue; // move too small to apply
 
-    private double calculatePerformanceScore(BasketballPlayer player, Long gameWeekId) {
-        // Get recent performances (last 3 gameweeks)
-        List<PlayerPerformance> recentPerformances = performanceRepo.findRecentPerformancesByPlayer(player.getId(), 3);
-        
-        if (recentPerformances.isEmpty()) {
-            return 15.0; // Average score if no data
+            priceUpdates.add(new Object[]{newPrice, now, playerId});
+            historyRows.add(new Object[]{playerId, gameWeekId, currentPrice, newPrice,
+                    newPrice.subtract(currentPrice),
+                    BigDecimal.valueOf(ownershipPercentage).setScale(2, RoundingMode.HALF_UP),
+                    BigDecimal.valueOf(performanceScore).setScale(2, RoundingMode.HALF_UP),
+                    buildPriceChangeReason(performanceScore, ownershipPercentage), now});
         }
-        
-        double totalScore = recentPerformances.stream()
-                .mapToDouble(this::calculateFantasyPoints)
-                .sum();
-        
-        return totalScore / recentPerformances.size();
-    }
 
-    private double calculateFantasyPoints(PlayerPerformance perf) {
-        double points = 0.0;
-        if (perf.getPoints() != null) points += perf.getPoints() * 1.0;
-        if (perf.getRebounds() != null) points += perf.getRebounds() * 1.2;
-        if (perf.getAssists() != null) points += perf.getAssists() * 1.5;
-        if (perf.getSteals() != null) points += perf.getSteals() * 3.0;
-        if (perf.getBlocks() != null) points += perf.getBlocks() * 3.0;
-        if (perf.getTurnovers() != null) points -= perf.getTurnovers() * 1.0;
-        return points;
+        batchUpdate("UPDATE basketball_player SET market_value = ?, updated_at = ? WHERE id = ?", priceUpdates);
+        batchUpdate("INSERT INTO player_price_history (player_id, game_week_id, old_price, new_price, price_change, " +
+                "ownership_percentage, performance_score, reason, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                historyRows);
+        TransactionUtil.runAfterCommit(catalogService::invalidate);
+        logger.info("[PRICING] GameWeek {}: {} of {} players repriced in {} ms",
+                gameWeekId, priceUpdates.size(), prices.size(), System.currentTimeMillis() - started);
     }
 
-    private double calculateOwnershipPercentage(BasketballPlayer player) {
-        long totalTeams = Math.max(1, teamRepo.count());
-        long teamsOwning = teamPlayerRepo.countActiveTeamsByPlayerId(player.getId());
-        return (teamsOwning * 100.0) / totalTeams;
-    }
+    /**
+     * Moves every active player whose pending net transfers, summed over gameweeks, reached the threshold
+     * by one step in the direction of the flow, and takes the threshold off their pending count. A player
+     * far past the threshold moves again on the next flush, so prices drift rather than jump. The moved
+     * players are locked in id order before their prices are read. Runs inside the transfer volume flush;
+     * returns the number of players repriced.
+     */
+    public int applyTransferPriceChanges() {
+        PlayerOwnershipService.Ownership ownership = ownershipService.snapshot();
+        long threshold = Math.max(MIN_TRANSFER_THRESHOLD,
+                (long) Math.ceil(ownership.totalTeams() * TRANSFER_THRESHOLD_SHARE));
+        // One move per player; it is booked against the latest gameweek the player has volume in
+        List<PendingMove> pending = jdbcTemplate.query(
+                "SELECT v.player_id, SUM(v.pending_net) AS pending_net, " +
+                "(array_agg(v.game_week_id ORDER BY gw.number DESC))[1] AS game_week_id " +
+                "FROM player_transfer_volume v JOIN game_week gw ON gw.id = v.game_week_id " +
+                "JOIN basketball_player p ON p.id = v.player_id WHERE p.active = true " +
+                "GROUP BY v.player_id HAVING abs(SUM(v.pending_net)) >= ? ORDER BY v.player_id",
+                (rs, i) -> new PendingMove(rs.getLong("player_id"), rs.getLong("game_week_id"), rs.getLong("pending_net")),
+                threshold);
+        if (pending.isEmpty()) return 0;
 
-    private double calculatePriceMultiplier(double performanceScore, double ownershipPercentage) {
-        double multiplier = 1.0;
-        
-        // Performance factor
-        if (performanceScore >= HIGH_PERFORMANCE_THRESHOLD) {
-            multiplier += 0.05; // 5% increase for high performance
-        } else if (performanceScore <= LOW_PERFORMANCE_THRESHOLD) {
-            multiplier -= 0.05; // 5% decrease for low performance
-        }
-        
-        // Ownership factor
-        if (ownershipPercentage >= HIGH_OWNERSHIP_THRESHOLD) {
-            multiplier += 0.03; // 3% increase for high ownership
-        } else if (ownershipPercentage <= LOW_OWNERSHIP_THRESHOLD) {
-            multiplier -= 0.02; // 2% decrease for low ownership
+        Map<Long, BigDecimal> prices = new HashMap<>();
+        Long[] ids = pending.stream().map(PendingMove::playerId).toArray(Long[]::new);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT id, market_value FROM basketball_player WHERE id = ANY(?) ORDER BY id FOR UPDATE");
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            return ps;
+        }, (RowCallbackHandler) rs -> prices.put(rs.getLong("id"), rs.getBigDecimal("market_value")));
+
+        List<Object[]> priceUpdates = new ArrayList<>();
+        List<Object[]> historyRows = new ArrayList<>();
+        List<Object[]> volumeUpdates = new ArrayList<>();
+        Timestamp now = Timestamp.from(Instant.now());
+        for (PendingMove move : pending) {
+            int direction = Long.signum(move.pendingNet());
+            volumeUpdates.add(new Object[]{direction * threshold, now, move.playerId(), move.gameWeekId()});
+            BigDecimal currentPrice = prices.get(move.playerId());
+            if (currentPrice == null) continue;
+            BigDecimal newPrice = currentPrice.add(direction > 0 ? TRANSFER_PRICE_STEP : TRANSFER_PRICE_STEP.negate())
+                    .max(MIN_PRICE).min(MAX_PRICE).setScale(2, RoundingMode.HALF_UP);
+            if (newPrice.compareTo(currentPrice) == 0) continue; // already at the bound
+
+            priceUpdates.add(new Object[]{newPrice, now, move.playerId()});
+            historyRows.add(new Object[]{move.playerId(), move.gameWeekId(), currentPrice, newPrice,
+                    newPrice.subtract(currentPrice),
+                    BigDecimal.valueOf(ownership.percentage(move.playerId())).setScale(2, RoundingMode.HALF_UP),
+                    null,
+                    String.format("Net transfers %s (%+d)", direction > 0 ? "in" : "out", move.pendingNet()), now});
         }
-        
-        return multiplier;
-    }
 
-    private void recordPriceChange(BasketballPlayer player, Long gameWeekId, BigDecimal oldPrice, BigDecimal newPrice) {
-        double ownershipPercentage = calculateOwnershipPercentage(player);
-        double performanceScore = calculatePerformanceScore(player, gameWeekId);
-        
-        String reason = buildPriceChangeReason(performanceScore, ownershipPercentage);
-        
-        GameWeek gameWeek = gameWeekRepo.findById(gameWeekId)
-                .orElseThrow(() -> new RuntimeException("GameWeek not found: " + gameWeekId));
-        
-        PlayerPriceHistory history = PlayerPriceHistory.builder()
-                .player(player)
-                .gameWeek(gameWeek)
-                .oldPrice(oldPrice)
-                .newPrice(newPrice)
-                .priceChange(newPrice.subtract(oldPrice))
-                .ownershipPercentage(BigDecimal.valueOf(ownershipPercentage))
-                .performanceScore(BigDecimal.valueOf(performanceScore))
-                .reason(reason)
-                .build();
-        
-        priceHistoryRepo.save(history);
+        batchUpdate("UPDATE player_transfer_volume SET pending_net = pending_net - ?, updated_at = ? " +
+                "WHERE player_id = ? AND game_week_id = ?", volumeUpdates);
+        batchUpdate("UPDATE basketball_player SET market_value = ?, updated_at = ? WHERE id = ?", priceUpdates);
+        batchUpdate("INSERT INTO player_price_history (player_id, game_week_id, old_price, new_price, price_change, " +
+                "ownership_percentage, performance_score, reason, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                historyRows);
+        if (!priceUpdates.isEmpty()) {
+            TransactionUtil.runAfterCommit(catalogService::invalidate);
+        }
+        return priceUpdates.size();
     }
 
     private String buildPriceChangeReason(double performanceScore, double ownershipPercentage) {
         StringBuilder reason = new StringBuilder();
         
-        if (performanceScore >= HIGH_PERFORMANCE_THRESHOLD) {
+        if (performanceScore >= PARAMETERS.highPerformanceThreshold()) {
             reason.append("High performance (").append(String.format("%.1f", performanceScore)).append(" avg points). ");
-        } else if (performanceScore <= LOW_PERFORMANCE_THRESHOLD) {
+        } else if (performanceScore <= PARAMETERS.lowPerformanceThreshold()) {
             reason.append("Low performance (").append(String.format("%.1f", performanceScore)).append(" avg points). ");
         }
         
-        if (ownershipPercentage >= HIGH_OWNERSHIP_THRESHOLD) {
+        if (ownershipPercentage >= PARAMETERS.highOwnershipThreshold()) {
             reason.append("High ownership (").append(String.format("%.1f", ownershipPercentage)).append("%). ");
-        } else if (ownershipPercentage <= LOW_OWNERSHIP_THRESHOLD) {
+        } else if (ownershipPercentage <= PARAMETERS.lowOwnershipThreshold()) {
             reason.append("Low ownership (").append(String.format("%.1f", ownershipPercentage)).append("%). ");
         }
         
         return reason.length() > 0 ? reason.toString().trim() : "Regular market adjustment";
     }
-}
\ No newline at end of file
+
+    private record PendingMove(long playerId, long gameWeekId, long pendingNet) {}
+
+    private void batchUpdate(String sql, List<Object[]> args) {
+        for (int from = 0; from < args.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, args.subList(from, Math.min(from + BATCH_SIZE, args.size())));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.exception.ValidationException;
+import com.example.fantasy.repository.BasketballPlayerRepository;
+import com.example.fantasy.util.PlayerNameIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Player name search over an in-memory {@link PlayerNameIndex} of active players. The index is built once
+ * on first use and then kept current one player at a time by admin edits, so a search never goes to the
+ * database for matching; result rows come from the player catalog.
+ */
+@Service
+public class PlayerSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlayerSearchService.class);
+
+    private static final int MAX_RESULTS = 50;
+
+    private final BasketballPlayerRepository playerRepo;
+    private final PlayerCatalogService catalogService;
+
+    private volatile PlayerNameIndex index;
+    // Bumped by every player change; a build that read rows before the latest bump may have missed it
+    private final AtomicLong indexVersion = new AtomicLong();
+
+    public PlayerSearchService(BasketballPlayerRepository playerRepo, PlayerCatalogService catalogService) {
+        this.playerRepo = playerRepo;
+        this.catalogService = catalogService;
+    }
+
+    /** Best matches for the query, most relevant first. Tolerates typos, accents and transliteration. */
+    public List<PlayerCatalogService.CatalogEntry> search(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new ValidationException("Search query must not be blank");
+        }
+        int k = Math.min(Math.max(limit, 1), MAX_RESULTS);
+        List<Long> playerIds = index().search(query, k).stream()
+                .map(PlayerNameIndex.Match::playerId)
+                .toList();
+        return catalogService.entries(playerIds);
+    }
+
+    // Called after commit; inactive players drop out of search like they drop out of the market
+    public void onPlayerSaved(Long playerId, String firstName, String lastName, boolean active) {
+        // Bump before reading the index, so a build installed after this read has seen the bump
+        indexVersion.incrementAndGet();
+        PlayerNameIndex current = index;
+        if (current == null) return; // the first search builds it from the database
+        if (active) {
+            current.upsert(playerId, firstName, lastName);
+        } else {
+            current.remove(playerId);
+        }
+    }
+
+    public void onPlayerDeleted(Long playerId) {
+        indexVersion.incrementAndGet();
+        PlayerNameIndex current = index;
+        if (current != null) {
+            current.remove(playerId);
+        }
+    }
+
+    private PlayerNameIndex index() {
+        PlayerNameIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    long started = System.currentTimeMillis();
+                    long version = indexVersion.get();
+                    current = new PlayerNameIndex();
+                    for (BasketballPlayerRepository.CatalogRowView row : playerRepo.findCatalogRows()) {
+                        current.upsert(row.getPlayerId(), row.getFirstName(), row.getLastName());
+                    }
+                    index = current;
+                    // A player changed while loading: this search still uses it, the next one rebuilds
+                    if (indexVersion.get() != version) {
+                        index = null;
+                    }
+                    logger.info("[PLAYERS] Search index built: {} players in {} ms", current.size(),
+                            System.currentTimeMillis() - started);
+                }
+            }
+        }
+        return current;
+    }
+}
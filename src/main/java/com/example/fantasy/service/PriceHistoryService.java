@@ -0,0 +1,229 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.exception.NotFoundException;
+import com.example.fantasy.exception.ValidationException;
+import com.example.fantasy.repository.BasketballPlayerRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Price time series read from player_price_history. Every query is a range read on the
+ * (player_id, created_at) index; long ranges are bucketed in the database, keeping the last price of
+ * each bucket, so a season of transfer-driven moves comes back as a few hundred points at most.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PriceHistoryService {
+
+    private static final Duration DEFAULT_RANGE = Duration.ofDays(90);
+    private static final Duration RAW_MAX_RANGE = Duration.ofDays(14);
+    private static final Duration DAY_MAX_RANGE = Duration.ofDays(180);
+    private static final int MAX_POINTS = 1000;
+    private static final int MAX_SPARKLINE_PLAYERS = 200;
+    private static final int DEFAULT_SPARKLINE_POINTS = 30;
+    private static final int MAX_SPARKLINE_POINTS = 100;
+
+    // Last price in each bucket; the bucket start stands for the whole bucket. The range is checked
+    // against MAX_POINTS before this runs, so there is no LIMIT to cut the newest buckets off
+    private static final String BUCKETED_SQL =
+            "SELECT DISTINCT ON (b.bucket) b.bucket, b.new_price FROM (" +
+            "SELECT date_trunc(?, created_at) AS bucket, created_at, new_price FROM player_price_history " +
+            "WHERE player_id = ? AND created_at >= ? AND created_at < ?) b " +
+            "ORDER BY b.bucket, b.created_at DESC";
+
+    // Bucket 0 is the price going into the range: the last earlier close, or else the old price of the
+    // first change in the range. Buckets 1..n split the range evenly
+    private static final String SPARKLINE_SQL =
+            "(SELECT DISTINCT ON (b.player_id, b.bucket) b.player_id, b.bucket, b.new_price FROM (" +
+            "SELECT player_id, GREATEST(1, width_bucket(CAST(EXTRACT(EPOCH FROM created_at) AS DOUBLE PRECISION), ?, ?, ?)) " +
+            "AS bucket, created_at, new_price FROM player_price_history " +
+            "WHERE player_id = ANY(?) AND created_at >= ? AND created_at < ?) b " +
+            "ORDER BY b.player_id, b.bucket, b.created_at DESC) " +
+            "UNION ALL " +
+            "SELECT p.id, 0, COALESCE(o.new_price, f.old_price) FROM unnest(?) AS p(id) " +
+            "LEFT JOIN LATERAL (SELECT new_price FROM player_price_history WHERE player_id = p.id AND created_at < ? " +
+            "ORDER BY created_at DESC LIMIT 1) o ON true " +
+            "LEFT JOIN LATERAL (SELECT old_price FROM player_price_history WHERE player_id = p.id " +
+            "AND created_at >= ? AND created_at < ? ORDER BY created_at LIMIT 1) f ON true " +
+            "WHERE o.new_price IS NOT NULL OR f.old_price IS NOT NULL";
+
+    public enum Resolution {
+        AUTO(null, null), RAW(null, null), HOUR("hour", Duration.ofHours(1)), DAY("day", Duration.ofDays(1)),
+        WEEK("week", Duration.ofDays(7));
+
+        private final String truncUnit;
+        private final Duration bucket;
+
+        Resolution(String truncUnit, Duration bucket) {
+            this.truncUnit = truncUnit;
+            this.bucket = bucket;
+        }
+
+        // Buckets the range can touch, counting partial ones at both ends
+        private long bucketsFor(Instant start, Instant end) {
+            return Duration.between(start, end).dividedBy(bucket) + 2;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BasketballPlayerRepository playerRepo;
+
+    public PriceHistoryService(JdbcTemplate jdbcTemplate, BasketballPlayerRepository playerRepo) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.playerRepo = playerRepo;
+    }
+
+    /**
+     * Prices of one player between {@code from} (inclusive) and {@code to} (exclusive), oldest first.
+     * Defaults to the last 90 days; AUTO picks raw changes for up to two weeks, daily buckets for up to
+     * six months and weekly buckets beyond, going coarser when a level would return more than
+     * MAX_POINTS points. An explicit resolution that would is rejected rather than cut short.
+     * The series opens with the price in force at {@code from}.
+     */
+    public PriceSeries history(Long playerId, Instant from, Instant to, Resolution resolution) {
+        if (!playerRepo.existsById(playerId)) {
+            throw new NotFoundException("Player not found");
+        }
+        Instant end = to == null ? Instant.now() : to;
+        Instant start = from == null ? end.minus(DEFAULT_RANGE) : from;
+        if (!start.isBefore(end)) {
+            throw new ValidationException("from must be before to");
+        }
+        boolean auto = resolution == null || resolution == Resolution.AUTO;
+        Resolution effective = auto ? autoResolution(start, end) : resolution;
+
+        List<PricePoint> points = new ArrayList<>();
+        List<BigDecimal> opening = jdbcTemplate.queryForList(
+                "SELECT new_price FROM player_price_history WHERE player_id = ? AND created_at < ? " +
+                "ORDER BY created_at DESC LIMIT 1", BigDecimal.class, playerId, Timestamp.from(start));
+        if (!opening.isEmpty()) {
+            points.add(new PricePoint(start, opening.get(0)));
+        }
+        if (effective == Resolution.RAW) {
+            // One row past the cap tells a full series from a cut one
+            List<PricePoint> raw = jdbcTemplate.query(
+                    "SELECT created_at, new_price FROM player_price_history WHERE player_id = ? " +
+                    "AND created_at >= ? AND created_at < ? ORDER BY created_at LIMIT " + (MAX_POINTS + 1),
+                    (rs, i) -> new PricePoint(rs.getTimestamp("created_at").toInstant(), rs.getBigDecimal("new_price")),
+                    playerId, Timestamp.from(start), Timestamp.from(end));
+            if (raw.size() <= MAX_POINTS) {
+                points.addAll(raw);
+            } else if (auto) {
+                effective = Resolution.HOUR;
+            } else {
+                throw new ValidationException("More than " + MAX_POINTS + " price changes in range; " +
+                        "use a coarser resolution or a shorter range");
+            }
+        }
+        if (effective != Resolution.RAW) {
+            if (effective.bucketsFor(start, end) > MAX_POINTS) {
+                if (!auto) {
+                    throw new ValidationException("Range too long for " + effective.name().toLowerCase() +
+                            " resolution; use a coarser resolution or a shorter range");
+                }
+                effective = coarsest(start, end);
+            }
+            points.addAll(jdbcTemplate.query(BUCKETED_SQL,
+                    (rs, i) -> new PricePoint(rs.getTimestamp("bucket").toInstant(), rs.getBigDecimal("new_price")),
+                    effective.truncUnit, playerId, Timestamp.from(start), Timestamp.from(end)));
+        }
+        return new PriceSeries(playerId, start, end, effective, points);
+    }
+
+    /**
+     * Sparklines for a page of players in one query: the range is cut into {@code points} equal buckets
+     * and each player gets the closing price of every bucket, carried forward through buckets without a
+     * change. Players with no price history get an empty line.
+     */
+    public List<Sparkline> sparklines(Collection<Long> playerIds, Instant from, Instant to, Integer points) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(playerIds));
+        if (ids.isEmpty()) return List.of();
+        if (ids.size() > MAX_SPARKLINE_PLAYERS) {
+            throw new ValidationException("At most " + MAX_SPARKLINE_PLAYERS + " players per request");
+        }
+        Instant end = to == null ? Instant.now() : to;
+        Instant start = from == null ? end.minus(DEFAULT_RANGE) : from;
+        if (!start.isBefore(end)) {
+            throw new ValidationException("from must be before to");
+        }
+        int buckets = Math.max(2, Math.min(points == null ? DEFAULT_SPARKLINE_POINTS : points, MAX_SPARKLINE_POINTS));
+
+        Map<Long, BigDecimal[]> closes = new HashMap<>();
+        Timestamp startTs = Timestamp.from(start);
+        Timestamp endTs = Timestamp.from(end);
+        jdbcTemplate.query(con -> {
+            Array idArray = con.createArrayOf("bigint", ids.toArray());
+            PreparedStatement ps = con.prepareStatement(SPARKLINE_SQL);
+            ps.setDouble(1, start.toEpochMilli() / 1000.0);
+            ps.setDouble(2, end.toEpochMilli() / 1000.0);
+            ps.setInt(3, buckets);
+            ps.setArray(4, idArray);
+            ps.setTimestamp(5, startTs);
+            ps.setTimestamp(6, endTs);
+            ps.setArray(7, idArray);
+            ps.setTimestamp(8, startTs);
+            ps.setTimestamp(9, startTs);
+            ps.setTimestamp(10, endTs);
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            int bucket = rs.getInt("bucket");
+            if (bucket < 0 || bucket > buckets) return; // out-of-range rows are filtered in SQL; be safe anyway
+            closes.computeIfAbsent(rs.getLong("player_id"), k -> new BigDecimal[buckets + 1])[bucket] =
+                    rs.getBigDecimal("new_price");
+        });
+
+        List<Sparkline> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            BigDecimal[] line = closes.get(id);
+            result.add(new Sparkline(id, line == null ? List.of() : carryForward(line)));
+        }
+        return result;
+    }
+
+    private static Resolution autoResolution(Instant start, Instant end) {
+        Duration span = Duration.between(start, end);
+        if (span.compareTo(RAW_MAX_RANGE) <= 0) return Resolution.RAW;
+        if (span.compareTo(DAY_MAX_RANGE) <= 0) return Resolution.DAY;
+        return Resolution.WEEK;
+    }
+
+    // Finest bucketed resolution that fits MAX_POINTS; ranges too long even for weeks are rejected
+    private static Resolution coarsest(Instant start, Instant end) {
+        for (Resolution r : List.of(Resolution.HOUR, Resolution.DAY, Resolution.WEEK)) {
+            if (r.bucketsFor(start, end) <= MAX_POINTS) return r;
+        }
+        throw new ValidationException("Range too long; at most " + MAX_POINTS + " weeks");
+    }
+
+    // Buckets 1..n with gaps filled from the previous close, starting from the price going into the range
+    private static List<BigDecimal> carryForward(BigDecimal[] closes) {
+        BigDecimal current = closes[0];
+        List<BigDecimal> line = new ArrayList<>(closes.length - 1);
+        for (int i = 1; i < closes.length; i++) {
+            if (closes[i] != null) current = closes[i];
+            line.add(current);
+        }
+        return line;
+    }
+
+    public record PricePoint(Instant at, BigDecimal price) {}
+
+    public record PriceSeries(Long playerId, Instant from, Instant to, Resolution resolution, List<PricePoint> points) {}
+
+    public record Sparkline(Long playerId, List<BigDecimal> prices) {}
+}
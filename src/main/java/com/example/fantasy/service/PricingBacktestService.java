@@ -0,0 +1,343 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.domain.GameWeek;
+import com.example.fantasy.domain.enums.GameWeekStatus;
+import com.example.fantasy.dto.AdminDtos;
+import com.example.fantasy.exception.NotFoundException;
+import com.example.fantasy.exception.ValidationException;
+import com.example.fantasy.repository.BasketballPlayerRepository;
+import com.example.fantasy.repository.GameWeekRepository;
+import com.example.fantasy.util.LongIntHashMap;
+import com.example.fantasy.util.PricingParameters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Offline backtest of the gameweek pricing rule. Replays the chosen gameweeks in order from the prices
+ * players had going into the first one, with form rebuilt from stored performances and ownership taken
+ * from that gameweek's lineups. History is read once into flat arrays; every candidate parameter set is
+ * then a pure in-memory replay, run in parallel. Nothing is written.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PricingBacktestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PricingBacktestService.class);
+
+    private static final int MAX_PARAMETER_SETS = 5000;
+
+    private final GameWeekRepository gwRepo;
+    private final BasketballPlayerRepository playerRepo;
+    private final PlayerOwnershipService ownershipService;
+    private final JdbcTemplate jdbcTemplate;
+
+    public PricingBacktestService(GameWeekRepository gwRepo, BasketballPlayerRepository playerRepo,
+                                  PlayerOwnershipService ownershipService, JdbcTemplate jdbcTemplate) {
+        this.gwRepo = gwRepo;
+        this.playerRepo = playerRepo;
+        this.ownershipService = ownershipService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public AdminDtos.PricingBacktestResponse run(List<Long> gameWeekIds, Map<String, List<Double>> grid) {
+        long started = System.currentTimeMillis();
+        List<PricingParameters> candidates = expand(grid);
+        List<GameWeek> weeks = resolveGameWeeks(gameWeekIds);
+
+        // Database reads happen here, on the request thread; the replays below are pure computation
+        History history = load(weeks);
+
+        AdminDtos.PricingBacktestResult baseline = replay(PricingParameters.DEFAULTS, history);
+        List<AdminDtos.PricingBacktestResult> results = IntStream.range(0, candidates.size()).parallel()
+                .mapToObj(i -> replay(candidates.get(i), history))
+                .toList();
+
+        long elapsed = System.currentTimeMillis() - started;
+        logger.info("[PRICING] Backtested {} parameter set(s) over {} gameweek(s) and {} players in {} ms",
+                candidates.size(), weeks.size(), history.playerIds.length, elapsed);
+        return new AdminDtos.PricingBacktestResponse(weeks.stream().map(GameWeek::getId).toList(),
+                history.playerIds.length, candidates.size(), elapsed, baseline, results);
+    }
+
+    // Cartesian product of the grid axes over the live parameters; axes are expanded in name order
+    private static List<PricingParameters> expand(Map<String, List<Double>> grid) {
+        List<PricingParameters> sets = new ArrayList<>(List.of(PricingParameters.DEFAULTS));
+        if (grid == null) return sets;
+        for (Map.Entry<String, List<Double>> axis : new TreeMap<>(grid).entrySet()) {
+            List<Double> values = axis.getValue();
+            if (values == null || values.isEmpty()) {
+                throw new ValidationException("No values for pricing parameter " + axis.getKey());
+            }
+            if ((long) sets.size() * values.size() > MAX_PARAMETER_SETS) {
+                throw new ValidationException("Grid is larger than " + MAX_PARAMETER_SETS + " parameter sets");
+            }
+            List<PricingParameters> next = new ArrayList<>(sets.size() * values.size());
+            for (PricingParameters base : sets) {
+                for (Double value : values) {
+                    if (value == null) {
+                        throw new ValidationException("Missing value for pricing parameter " + axis.getKey());
+                    }
+                    try {
+                        next.add(base.with(axis.getKey(), value));
+                    } catch (IllegalArgumentException e) {
+                        throw new ValidationException(e.getMessage());
+                    }
+                }
+            }
+            sets = next;
+        }
+        return sets;
+    }
+
+    private List<GameWeek> resolveGameWeeks(List<Long> gameWeekIds) {
+        List<GameWeek> weeks;
+        if (gameWeekIds == null || gameWeekIds.isEmpty()) {
+            weeks = new ArrayList<>(gwRepo.findAll().stream()
+                    .filter(gw -> gw.getStatus() == GameWeekStatus.COMPLETED).toList());
+        } else {
+            List<Long> ids = new ArrayList<>(new LinkedHashSet<>(gameWeekIds));
+            weeks = new ArrayList<>(gwRepo.findAllById(ids));
+            if (weeks.size() != ids.size()) {
+                throw new NotFoundException("GameWeek not found");
+            }
+        }
+        if (weeks.isEmpty()) {
+            throw new ValidationException("No completed gameweeks to replay");
+        }
+        weeks.sort(Comparator.comparing(GameWeek::getNumber));
+        return weeks;
+    }
+
+    private History load(List<GameWeek> weeks) {
+        List<BasketballPlayerRepository.CatalogRowView> players = playerRepo.findCatalogRows();
+        int n = players.size();
+        int w = weeks.size();
+        long[] playerIds = new long[n];
+        double[] startPrices = new double[n];
+        LongIntHashMap index = new LongIntHashMap(n);
+        for (int p = 0; p < n; p++) {
+            BasketballPlayerRepository.CatalogRowView row = players.get(p);
+            playerIds[p] = row.getPlayerId();
+            startPrices[p] = row.getMarketValue() == null ? PricingParameters.MIN_PRICE : row.getMarketValue().doubleValue();
+            index.put(row.getPlayerId(), p);
+        }
+        int[] weekNumbers = weeks.stream().mapToInt(GameWeek::getNumber).toArray();
+        Long[] weekIds = weeks.stream().map(GameWeek::getId).toArray(Long[]::new);
+
+        // Price going into the first replayed gameweek: old price of the first change from then on
+        jdbcTemplate.query("SELECT DISTINCT ON (h.player_id) h.player_id, h.old_price FROM player_price_history h " +
+                        "JOIN game_week gw ON gw.id = h.game_week_id WHERE gw.number >= ? " +
+                        "ORDER BY h.player_id, gw.number, h.created_at",
+                (RowCallbackHandler) rs -> {
+                    long playerId = rs.getLong("player_id");
+                    if (index.containsKey(playerId)) {
+                        startPrices[index.get(playerId)] = rs.getBigDecimal("old_price").doubleValue();
+                    }
+                }, weekNumbers[0]);
+
+        // Form as of each gameweek, rebuilt the way player_form computes it
+        double[][] performance = new double[w][n];
+        for (double[] row : performance) Arrays.fill(row, PlayerPricingService.DEFAULT_PERFORMANCE_SCORE);
+        double[] replayPoints = new double[n];
+        PerformanceWalk walk = new PerformanceWalk(weekNumbers, performance, replayPoints);
+        jdbcTemplate.query("SELECT pp.player_id, gw.number, COALESCE(pp.fantasy_points, 0) AS fp " +
+                        "FROM player_performance pp JOIN match m ON m.id = pp.match_id " +
+                        "JOIN game_week gw ON gw.id = m.game_week_id WHERE gw.number <= ? " +
+                        "ORDER BY pp.player_id, gw.number, m.kickoff, pp.id",
+                (RowCallbackHandler) rs -> {
+                    long playerId = rs.getLong("player_id");
+                    walk.add(index.containsKey(playerId) ? index.get(playerId) : -1, rs.getInt("number"), rs.getInt("fp"));
+                }, weekNumbers[w - 1]);
+        walk.finish();
+
+        // Ownership per gameweek from lineups: share of that gameweek's lineups holding the player
+        double[][] ownership = new double[w][n];
+        LongIntHashMap weekIndex = new LongIntHashMap(w);
+        for (int i = 0; i < w; i++) weekIndex.put(weekIds[i], i);
+        long[] lineups = new long[w];
+        PreparedStatementSetter weekIdsParam = ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", weekIds));
+        jdbcTemplate.query("SELECT game_week_id, COUNT(*) AS lineups FROM lineup WHERE game_week_id = ANY(?) " +
+                        "GROUP BY game_week_id", weekIdsParam,
+                (RowCallbackHandler) rs -> lineups[weekIndex.get(rs.getLong("game_week_id"))] = rs.getLong("lineups"));
+        jdbcTemplate.query("SELECT l.game_week_id, s.player_id, COUNT(DISTINCT l.fantasy_team_id) AS owners " +
+                        "FROM lineup_slot s JOIN lineup l ON l.id = s.lineup_id WHERE l.game_week_id = ANY(?) " +
+                        "GROUP BY l.game_week_id, s.player_id", weekIdsParam,
+                (RowCallbackHandler) rs -> {
+                    long playerId = rs.getLong("player_id");
+                    int week = weekIndex.get(rs.getLong("game_week_id"));
+                    if (index.containsKey(playerId) && lineups[week] > 0) {
+                        ownership[week][index.get(playerId)] = 100.0 * rs.getLong("owners") / lineups[week];
+                    }
+                });
+        // Gameweeks nobody set a lineup for fall back to today's ownership
+        PlayerOwnershipService.Ownership current = null;
+        for (int i = 0; i < w; i++) {
+            if (lineups[i] > 0) continue;
+            if (current == null) current = ownershipService.snapshot();
+            for (int p = 0; p < n; p++) ownership[i][p] = current.percentage(playerIds[p]);
+        }
+
+        return new History(playerIds, startPrices, performance, ownership, replayPoints);
+    }
+
+    private static AdminDtos.PricingBacktestResult replay(PricingParameters parameters, History history) {
+        int n = history.playerIds.length;
+        int w = history.performance.length;
+        double[] prices = history.startPrices.clone();
+        double[] sumChange = new double[n];
+        double[] sumChangeSq = new double[n];
+        long moves = 0;
+        double sumAbsChange = 0;
+        for (int week = 0; week < w; week++) {
+            double[] performance = history.performance[week];
+            double[] ownership = history.ownership[week];
+            for (int p = 0; p < n; p++) {
+                double before = prices[p];
+                double after = parameters.reprice(before, performance[p], ownership[p]);
+                if (after == before) continue;
+                double changePct = 100.0 * (after - before) / before;
+                moves++;
+                sumAbsChange += Math.abs(changePct);
+                sumChange[p] += changePct;
+                sumChangeSq[p] += changePct * changePct;
+                prices[p] = after;
+            }
+        }
+
+        double[] sorted = prices.clone();
+        Arrays.sort(sorted);
+        double mean = 0;
+        for (double price : prices) mean += price;
+        mean = n == 0 ? 0 : mean / n;
+        double variance = 0;
+        int atMin = 0;
+        int atMax = 0;
+        double volatility = 0;
+        for (int p = 0; p < n; p++) {
+            variance += (prices[p] - mean) * (prices[p] - mean);
+            if (prices[p] <= PricingParameters.MIN_PRICE) atMin++;
+            if (prices[p] >= PricingParameters.MAX_PRICE) atMax++;
+            double meanChange = sumChange[p] / w;
+            volatility += Math.sqrt(Math.max(0, sumChangeSq[p] / w - meanChange * meanChange));
+        }
+        return new AdminDtos.PricingBacktestResult(parameters,
+                mean,
+                n == 0 ? 0 : Math.sqrt(variance / n),
+                percentile(sorted, 0),
+                percentile(sorted, 0.10),
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.90),
+                percentile(sorted, 1),
+                (double) moves / w,
+                n == 0 ? 0 : sumAbsChange / ((long) n * w),
+                n == 0 ? 0 : volatility / n,
+                n == 0 ? 0 : (double) atMin / n,
+                n == 0 ? 0 : (double) atMax / n,
+                correlation(prices, history.replayPoints));
+    }
+
+    // Nearest-rank percentile of an ascending array
+    private static double percentile(double[] sorted, double q) {
+        if (sorted.length == 0) return 0;
+        int rank = (int) Math.ceil(q * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    private static double correlation(double[] x, double[] y) {
+        int n = x.length;
+        if (n < 2) return 0;
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = 0; i < n; i++) {
+            meanX += x[i];
+            meanY += y[i];
+        }
+        meanX /= n;
+        meanY /= n;
+        double cov = 0;
+        double varX = 0;
+        double varY = 0;
+        for (int i = 0; i < n; i++) {
+            cov += (x[i] - meanX) * (y[i] - meanY);
+            varX += (x[i] - meanX) * (x[i] - meanX);
+            varY += (y[i] - meanY) * (y[i] - meanY);
+        }
+        return varX == 0 || varY == 0 ? 0 : cov / Math.sqrt(varX * varY);
+    }
+
+    private record History(
+            long[] playerIds,
+            double[] startPrices,
+            double[][] performance, // [gameweek][player] form going into the price update
+            double[][] ownership,   // [gameweek][player] ownership %
+            double[] replayPoints   // fantasy points scored in the replayed gameweeks
+    ) {}
+
+    /**
+     * Consumes performances ordered by player and gameweek number, one player at a time, and fills in
+     * each replayed gameweek's form: the average of the player's last few scores up to that gameweek.
+     */
+    private static final class PerformanceWalk {
+        private final int[] weekNumbers;
+        private final double[][] performance;
+        private final double[] replayPoints;
+        private int player = -1;
+        private int[] numbers = new int[64];
+        private int[] points = new int[64];
+        private int count;
+
+        PerformanceWalk(int[] weekNumbers, double[][] performance, double[] replayPoints) {
+            this.weekNumbers = weekNumbers;
+            this.performance = performance;
+            this.replayPoints = replayPoints;
+        }
+
+        // player is -1 for rows of players outside the backtest
+        void add(int player, int number, int fp) {
+            if (player != this.player) {
+                finish();
+                this.player = player;
+            }
+            if (player < 0) return;
+            if (count == numbers.length) {
+                numbers = Arrays.copyOf(numbers, count * 2);
+                points = Arrays.copyOf(points, count * 2);
+            }
+            numbers[count] = number;
+            points[count] = fp;
+            count++;
+        }
+
+        void finish() {
+            if (player >= 0 && count > 0) {
+                int seen = 0;
+                for (int week = 0; week < weekNumbers.length; week++) {
+                    while (seen < count && numbers[seen] <= weekNumbers[week]) {
+                        if (Arrays.binarySearch(weekNumbers, numbers[seen]) >= 0) replayPoints[player] += points[seen];
+                        seen++;
+                    }
+                    if (seen == 0) continue;
+                    int from = Math.max(0, seen - PlayerFormService.FORM_WINDOW);
+                    double sum = 0;
+                    for (int i = from; i < seen; i++) sum += points[i];
+                    performance[week][player] = sum / (seen - from);
+                }
+            }
+            count = 0;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.exception.NotFoundException;
+import com.example.fantasy.repository.FantasyTeamRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * End-of-gameweek rank snapshots. Capture is one INSERT ... SELECT over fantasy_team (global rank by the
+ * leaderboard order) joined with the league ranks just written by the standings refresh; a team's
+ * history is one range read on the (fantasy_team_id, game_week_id) primary key.
+ */
+@Service
+@Transactional
+public class RankHistoryService {
+
+    // Same order as the global leaderboard: points desc, transfers asc, registration asc, then id
+    private static final String CAPTURE_SQL =
+            "INSERT INTO team_rank_history (fantasy_team_id, game_week_id, global_rank, total_points, gameweek_points, " +
+            "league_ids, league_ranks, captured_at) " +
+            "SELECT ft.id, ?, ROW_NUMBER() OVER (ORDER BY ft.total_points DESC, ft.season_transfers ASC, " +
+            "ft.created_at ASC NULLS LAST, ft.id ASC), ft.total_points, COALESCE(s.points, 0), l.league_ids, l.league_ranks, now() " +
+            "FROM fantasy_team ft " +
+            "LEFT JOIN team_gameweek_score s ON s.fantasy_team_id = ft.id AND s.game_week_id = ? " +
+            "LEFT JOIN (SELECT team_id, array_agg(league_id ORDER BY league_id) AS league_ids, " +
+            "array_agg(rank ORDER BY league_id) AS league_ranks " +
+            "FROM fantasy_league_team WHERE rank IS NOT NULL GROUP BY team_id) l ON l.team_id = ft.id " +
+            "ON CONFLICT (fantasy_team_id, game_week_id) DO UPDATE SET global_rank = EXCLUDED.global_rank, " +
+            "total_points = EXCLUDED.total_points, gameweek_points = EXCLUDED.gameweek_points, " +
+            "league_ids = EXCLUDED.league_ids, league_ranks = EXCLUDED.league_ranks, captured_at = EXCLUDED.captured_at";
+
+    private static final String LATER_GAMEWEEK_SCORED_SQL =
+            "SELECT EXISTS (SELECT 1 FROM game_week later JOIN game_week g ON g.id = ? WHERE later.number > g.number " +
+            "AND EXISTS (SELECT 1 FROM team_gameweek_score s WHERE s.game_week_id = later.id))";
+
+    // Only the gameweek's own points; totals and ranks stay as captured when it was the latest
+    private static final String REFRESH_GAMEWEEK_POINTS_SQL =
+            "UPDATE team_rank_history h SET gameweek_points = COALESCE(s.points, 0) " +
+            "FROM team_rank_history x LEFT JOIN team_gameweek_score s " +
+            "ON s.fantasy_team_id = x.fantasy_team_id AND s.game_week_id = x.game_week_id " +
+            "WHERE x.game_week_id = ? AND h.fantasy_team_id = x.fantasy_team_id AND h.game_week_id = x.game_week_id " +
+            "AND h.gameweek_points IS DISTINCT FROM COALESCE(s.points, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FantasyTeamRepository teamRepo;
+
+    public RankHistoryService(JdbcTemplate jdbcTemplate, FantasyTeamRepository teamRepo) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.teamRepo = teamRepo;
+    }
+
+    /**
+     * Records every team's standing as of now under the given gameweek. Totals and ranks are current
+     * values, so they are only written while no later gameweek has been scored; re-scoring an older
+     * gameweek refreshes just its gameweek points and keeps the standing captured at the time.
+     */
+    public int capture(Long gameWeekId) {
+        Boolean laterScored = jdbcTemplate.queryForObject(LATER_GAMEWEEK_SCORED_SQL, Boolean.class, gameWeekId);
+        if (Boolean.TRUE.equals(laterScored)) {
+            return jdbcTemplate.update(REFRESH_GAMEWEEK_POINTS_SQL, gameWeekId);
+        }
+        return jdbcTemplate.update(CAPTURE_SQL, gameWeekId, gameWeekId);
+    }
+
+    @Transactional(readOnly = true)
+    public TeamRankHistory getTeamHistory(Long teamId) {
+        if (!teamRepo.existsById(teamId)) {
+            throw new NotFoundException("Team not found");
+        }
+        List<GameWeekRank> rows = jdbcTemplate.query(
+                "SELECT h.game_week_id, gw.number, h.global_rank, h.total_points, h.gameweek_points, " +
+                "h.league_ids, h.league_ranks FROM team_rank_history h JOIN game_week gw ON gw.id = h.game_week_id " +
+                "WHERE h.fantasy_team_id = ? ORDER BY gw.number",
+                (rs, i) -> mapRow(rs), teamId);
+
+        // Movement against the previous captured gameweek; positive means the team climbed
+        List<GameWeekRank> withMovement = new ArrayList<>(rows.size());
+        GameWeekRank previous = null;
+        for (GameWeekRank row : rows) {
+            Integer movement = previous == null ? null : previous.globalRank() - row.globalRank();
+            withMovement.add(new GameWeekRank(row.gameWeekId(), row.gameWeekNumber(), row.globalRank(), movement,
+                    row.totalPoints(), row.gameweekPoints(), row.leagueRanks()));
+            previous = row;
+        }
+        return new TeamRankHistory(teamId, withMovement);
+    }
+
+    private static GameWeekRank mapRow(ResultSet rs) throws SQLException {
+        List<LeagueRank> leagueRanks = new ArrayList<>();
+        Array ids = rs.getArray("league_ids");
+        Array ranks = rs.getArray("league_ranks");
+        if (ids != null && ranks != null) {
+            Long[] leagueIds = (Long[]) ids.getArray();
+            Integer[] leagueRankValues = (Integer[]) ranks.getArray();
+            for (int i = 0; i < leagueIds.length; i++) {
+                leagueRanks.add(new LeagueRank(leagueIds[i], leagueRankValues[i]));
+            }
+        }
+        return new GameWeekRank(rs.getLong("game_week_id"), rs.getInt("number"), rs.getInt("global_rank"), null,
+                rs.getInt("total_points"), rs.getInt("gameweek_points"), leagueRanks);
+    }
+
+    public record TeamRankHistory(Long teamId, List<GameWeekRank> gameWeeks) {}
+
+    public record GameWeekRank(
+            Long gameWeekId,
+            int gameWeekNumber,
+            int globalRank,
+            Integer globalRankMovement, // null for the first captured gameweek
+            int totalPoints,
+            int gameweekPoints,
+            List<LeagueRank> leagueRanks
+    ) {}
+
+    public record LeagueRank(Long leagueId, int rank) {}
+}
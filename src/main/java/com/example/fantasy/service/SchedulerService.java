@@ -1,25 +1,29 @@
 package com.example.fantasy.service;
 
-import com.example.fantasy.domain.GameWeek;
 import com.example.fantasy.domain.enums.GameWeekStatus;
 import com.example.fantasy.repository.GameWeekRepository;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.util.Optional;
 
 @Service
 @Transactional
 public class SchedulerService {
 
+    private static final int RECALC_WINDOW_DAYS = 3;
+
     private final GameWeekRepository gwRepo;
     private final GameWeekService gameWeekService;
+    private final TransferVolumeService transferVolumeService;
 
-    public SchedulerService(GameWeekRepository gwRepo, GameWeekService gameWeekService) {
+    public SchedulerService(GameWeekRepository gwRepo, GameWeekService gameWeekService,
+                            TransferVolumeService transferVolumeService) {
         this.gwRepo = gwRepo;
         this.gameWeekService = gameWeekService;
+        this.transferVolumeService = transferVolumeService;
     }
 
     // Every hour: if there is an ACTIVE GW that ended, mark COMPLETED.
@@ -33,11 +37,19 @@ public class SchedulerService {
         });
     }
 
-    // Every day at 02:00: recalculate points for completed GWs of the last 3 days (simple heuristic)
+    // Every day at 02:00: recalculate points for completed GWs of the last 3 days (simple heuristic).
+    // Scoring reconciles against the team_gameweek_score ledger, so re-runs only write what changed.
     @Scheduled(cron = "0 0 2 * * *")
     public void recalcRecentGameWeeks() {
-        gwRepo.findAll().stream()
-                .filter(gw -> gw.getStatus() == GameWeekStatus.COMPLETED)
+        gwRepo.findByStatusAndEndDateGreaterThanEqual(GameWeekStatus.COMPLETED, LocalDate.now().minusDays(RECALC_WINDOW_DAYS))
                 .forEach(gw -> gameWeekService.calculateGameWeekPoints(gw.getId()));
     }
-}
\ No newline at end of file
+
+    // Every minute: write buffered transfer volume and move prices that crossed the transfer threshold.
+    // The flush runs its own transaction so failed writes can be put back for the next run.
+    @Scheduled(fixedDelay = 60_000)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void flushTransferVolume() {
+        transferVolumeService.flush();
+    }
+}
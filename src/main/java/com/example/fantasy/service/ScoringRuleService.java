@@ -0,0 +1,94 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.domain.ScoringRule;
+import com.example.fantasy.repository.PlayerPerformanceRepository;
+import com.example.fantasy.repository.ScoringRuleRepository;
+import com.example.fantasy.util.ScoringWeights;
+import com.example.fantasy.util.TransactionUtil;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Transactional
+public class ScoringRuleService {
+
+    private final ScoringRuleRepository scoringRepo;
+    private final PlayerPerformanceRepository perfRepo;
+    private final PlayerCatalogService catalogService;
+    private final PlayerFormService formService;
+    private final LiveScoringService liveScoringService;
+
+    // Compiled once from the scoring_rule rows and dropped whenever a rule changes
+    private volatile ScoringWeights weights;
+    // Bumped by every invalidate(); a compile that started before the latest bump may hold the old rules
+    private final AtomicLong weightsVersion = new AtomicLong();
+
+    public ScoringRuleService(ScoringRuleRepository scoringRepo, PlayerPerformanceRepository perfRepo,
+                              PlayerCatalogService catalogService, PlayerFormService formService,
+                              LiveScoringService liveScoringService) {
+        this.scoringRepo = scoringRepo;
+        this.perfRepo = perfRepo;
+        this.catalogService = catalogService;
+        this.formService = formService;
+        this.liveScoringService = liveScoringService;
+    }
+
+    @Transactional(readOnly = true)
+    public ScoringWeights getWeights() {
+        ScoringWeights current = weights;
+        if (current == null) {
+            long version = weightsVersion.get();
+            current = ScoringWeights.compile(scoringRepo.findAll());
+            weights = current;
+            // A rule changed while loading: this read still uses it, the next one recompiles
+            if (weightsVersion.get() != version) {
+                weights = null;
+            }
+        }
+        return current;
+    }
+
+    public ScoringRule upsertRule(String metric, BigDecimal pointsPerUnit) {
+        ScoringRule rule = scoringRepo.findByMetric(metric).orElseGet(ScoringRule::new);
+        rule.setMetric(metric);
+        rule.setPointsPerUnit(pointsPerUnit);
+        ScoringRule saved = scoringRepo.saveAndFlush(rule);
+        recomputeFantasyPoints(ScoringWeights.compile(scoringRepo.findAll()));
+        // Drop the cached vector only once the new rule is visible to other transactions
+        TransactionUtil.runAfterCommit(this::invalidate);
+        // Market totals and form are sums of the rescored points
+        TransactionUtil.runAfterCommit(catalogService::invalidate);
+        // Live provisional points are built from the same column
+        TransactionUtil.runAfterCommit(liveScoringService::invalidateAll);
+        return saved;
+    }
+
+    // Set-based rescore of every stored performance so the fantasy_points column follows the rules
+    public int recomputeFantasyPoints(ScoringWeights compiled) {
+        int rescored = perfRepo.recomputeFantasyPoints(
+                compiled.centsFor(ScoringWeights.POINT),
+                compiled.centsFor(ScoringWeights.REBOUND),
+                compiled.centsFor(ScoringWeights.ASSIST),
+                compiled.centsFor(ScoringWeights.STEAL),
+                compiled.centsFor(ScoringWeights.BLOCK),
+                compiled.centsFor(ScoringWeights.TURNOVER),
+                compiled.centsFor(ScoringWeights.THREE_MADE));
+        // Form is built from the rescored points
+        formService.refreshAll();
+        return rescored;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ScoringRule> listRules() {
+        return scoringRepo.findAll();
+    }
+
+    public void invalidate() {
+        weightsVersion.incrementAndGet();
+        weights = null;
+    }
+}
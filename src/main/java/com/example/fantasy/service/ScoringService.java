@@ -0,0 +1,274 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.domain.GameWeek;
+import com.example.fantasy.dto.FantasyDtos;
+import com.example.fantasy.exception.NotFoundException;
+import com.example.fantasy.exception.ValidationException;
+import com.example.fantasy.repository.FantasyLeagueTeamRepository;
+import com.example.fantasy.repository.GameWeekRepository;
+import com.example.fantasy.repository.LineupSlotRepository;
+import com.example.fantasy.repository.PlayerPerformanceRepository;
+import com.example.fantasy.repository.TeamGameWeekScoreRepository;
+import com.example.fantasy.util.LongIntHashMap;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Set-based gameweek scoring. Loads the gameweek's per-player point sums, starter slots and
+ * team_gameweek_score ledger in bulk, then partitions teams into fixed id ranges that are scored
+ * in parallel. Each chunk reconciles against the ledger in its own short transaction: only rows
+ * whose points changed are written, and FantasyTeam.totalPoints moves by the difference, so
+ * re-scoring a gameweek is idempotent.
+ * <p>
+ * If a run dies part-way, the next run simply scores every chunk again: chunks the failed run
+ * committed reconcile to no writes unless their stats were corrected in the meantime.
+ */
+@Service
+@Transactional
+public class ScoringService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoringService.class);
+
+    private static final String CAPTAIN_SLOT = "CPT";
+    private static final int BATCH_SIZE = 500;
+    // Teams whose ids fall in the same range of this width are scored and committed together
+    private static final long CHUNK_ID_RANGE = 1000;
+    private static final int MAX_WORKERS = 8;
+
+    private final GameWeekRepository gwRepo;
+    private final PlayerPerformanceRepository perfRepo;
+    private final LineupSlotRepository slotRepo;
+    private final TeamGameWeekScoreRepository scoreRepo;
+    private final FantasyLeagueTeamRepository leagueTeamRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LeaderboardService leaderboardService;
+    private final RankHistoryService rankHistoryService;
+
+    private final ExecutorService workers;
+    private final Set<Long> runningGameWeeks = ConcurrentHashMap.newKeySet();
+
+    public ScoringService(GameWeekRepository gwRepo, PlayerPerformanceRepository perfRepo, LineupSlotRepository slotRepo,
+                          TeamGameWeekScoreRepository scoreRepo, FantasyLeagueTeamRepository leagueTeamRepo,
+                          JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate, LeaderboardService leaderboardService,
+                          RankHistoryService rankHistoryService) {
+        this.gwRepo = gwRepo;
+        this.perfRepo = perfRepo;
+        this.slotRepo = slotRepo;
+        this.scoreRepo = scoreRepo;
+        this.leagueTeamRepo = leagueTeamRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.leaderboardService = leaderboardService;
+        this.rankHistoryService = rankHistoryService;
+
+        int poolSize = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), MAX_WORKERS));
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(poolSize, r -> {
+            Thread t = new Thread(r, "scoring-worker-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // Runs outside any caller transaction so each chunk commits on its own
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int calculateGameWeekPoints(Long gameWeekId) {
+        GameWeek gw = gwRepo.findById(gameWeekId).orElseThrow(() -> new NotFoundException("GameWeek not found"));
+        if (!runningGameWeeks.add(gw.getId())) {
+            throw new ValidationException("GameWeek " + gw.getNumber() + " is already being scored");
+        }
+        try {
+            return scoreInChunks(gw);
+        } finally {
+            runningGameWeeks.remove(gw.getId());
+        }
+    }
+
+    /**
+     * Points a team's starters earned in each fixture of the gameweek. Computed from the same stored
+     * fantasy points as the ledger, so the starters' points add up to what scoring wrote for the team.
+     */
+    @Transactional(readOnly = true)
+    public FantasyDtos.TeamGameWeekBreakdown getTeamBreakdown(Long gameWeekId, Long teamId) {
+        if (!gwRepo.existsById(gameWeekId)) {
+            throw new NotFoundException("GameWeek not found");
+        }
+        List<LineupSlotRepository.StarterSlotView> starters = slotRepo.findStartersByGameWeekIdAndTeamId(gameWeekId, teamId);
+        if (starters.isEmpty()) {
+            return new FantasyDtos.TeamGameWeekBreakdown(gameWeekId, teamId, 0, List.of());
+        }
+
+        Map<Long, List<FantasyDtos.MatchPoints>> matchesByPlayer = new HashMap<>();
+        List<Long> playerIds = starters.stream().map(LineupSlotRepository.StarterSlotView::getPlayerId).toList();
+        for (PlayerPerformanceRepository.MatchPointsView v : perfRepo.findMatchPointsByGameWeekIdAndPlayerIds(gameWeekId, playerIds)) {
+            int points = v.getPoints() == null ? 0 : v.getPoints();
+            matchesByPlayer.computeIfAbsent(v.getPlayerId(), k -> new ArrayList<>())
+                    .add(new FantasyDtos.MatchPoints(v.getMatchId(), points));
+        }
+
+        int total = 0;
+        List<FantasyDtos.StarterPoints> rows = new ArrayList<>(starters.size());
+        for (LineupSlotRepository.StarterSlotView s : starters) {
+            boolean captain = CAPTAIN_SLOT.equals(s.getSlotPosition());
+            List<FantasyDtos.MatchPoints> matches = matchesByPlayer.getOrDefault(s.getPlayerId(), List.of());
+            int points = matches.stream().mapToInt(FantasyDtos.MatchPoints::points).sum() * (captain ? 2 : 1);
+            total += points;
+            rows.add(new FantasyDtos.StarterPoints(s.getPlayerId(), s.getSlotPosition(), captain, points, matches));
+        }
+        return new FantasyDtos.TeamGameWeekBreakdown(gameWeekId, teamId, total, rows);
+    }
+
+    private int scoreInChunks(GameWeek gw) {
+        long started = System.currentTimeMillis();
+        Long gameWeekId = gw.getId();
+
+        LongIntHashMap playerPoints = loadPlayerPoints(gameWeekId);
+        Map<Long, Chunk> chunks = new TreeMap<>();
+        for (LineupSlotRepository.StarterSlotView s : slotRepo.findStartersByGameWeekId(gameWeekId)) {
+            chunks.computeIfAbsent(chunkStart(s.getTeamId()), k -> new Chunk()).starters.add(s);
+        }
+        scoreRepo.findScoresByGameWeekId(gameWeekId).forEach(v ->
+                chunks.computeIfAbsent(chunkStart(v.getTeamId()), k -> new Chunk()).previous.put(v.getTeamId(), v.getPoints()));
+
+        List<Future<ChunkResult>> futures = new ArrayList<>(chunks.size());
+        for (Chunk chunk : chunks.values()) {
+            futures.add(workers.submit(() -> scoreChunk(gameWeekId, chunk, playerPoints)));
+        }
+
+        int gameWeekPoints = 0;
+        int changed = 0;
+        for (Future<ChunkResult> f : futures) {
+            ChunkResult result = await(f);
+            gameWeekPoints += result.points();
+            changed += result.changedRows();
+        }
+
+        // League ranks first: the rank history capture reads them
+        Integer standings = transactionTemplate.execute(status -> {
+            int changedStandings = leagueTeamRepo.refreshStandings();
+            rankHistoryService.capture(gameWeekId);
+            return changedStandings;
+        });
+        leaderboardService.refreshGlobalSnapshot();
+        logger.info("[SCORING] GameWeek {} scored: {} chunks, {} ledger rows, {} league standings changed in {} ms",
+                gw.getNumber(), chunks.size(), changed, standings, System.currentTimeMillis() - started);
+        return gameWeekPoints;
+    }
+
+    // Aggregates the fantasy points stored at ingest time; no performance entities are loaded.
+    // Every performance in the gameweek counts, so a player with two fixtures (double gameweek) scores both.
+    private LongIntHashMap loadPlayerPoints(Long gameWeekId) {
+        List<PlayerPerformanceRepository.PlayerPointsView> sums = perfRepo.sumFantasyPointsByGameWeekId(gameWeekId);
+        LongIntHashMap playerPoints = new LongIntHashMap(sums.size());
+        for (PlayerPerformanceRepository.PlayerPointsView v : sums) {
+            if (v.getPoints() != null) {
+                playerPoints.addTo(v.getPlayerId(), v.getPoints().intValue());
+            }
+        }
+        return playerPoints;
+    }
+
+    private ChunkResult scoreChunk(Long gameWeekId, Chunk chunk, LongIntHashMap playerPoints) {
+        LongIntHashMap teamPoints = new LongIntHashMap(chunk.starters.size());
+        int points = sumTeamPoints(chunk.starters, playerPoints, teamPoints);
+        // A team that lost its lineup since the last run drops back to zero for this gameweek
+        chunk.previous.keySet().forEach(teamId -> teamPoints.addTo(teamId, 0));
+        Integer changed = transactionTemplate.execute(status -> reconcileLedger(gameWeekId, teamPoints, chunk.previous));
+        return new ChunkResult(points, changed == null ? 0 : changed);
+    }
+
+    // Starters only; the captain (slotPosition == CPT) scores double, bench gets 0. Returns the chunk's total.
+    private static int sumTeamPoints(List<LineupSlotRepository.StarterSlotView> starters, LongIntHashMap playerPoints,
+                                     LongIntHashMap teamPoints) {
+        int total = 0;
+        for (LineupSlotRepository.StarterSlotView s : starters) {
+            int p = playerPoints.get(s.getPlayerId());
+            if (CAPTAIN_SLOT.equals(s.getSlotPosition())) {
+                p *= 2;
+            }
+            teamPoints.addTo(s.getTeamId(), p);
+            total += p;
+        }
+        return total;
+    }
+
+    // Writes only the ledger rows that are new or changed and applies the point difference to the team totals
+    private int reconcileLedger(Long gameWeekId, LongIntHashMap teamPoints, Map<Long, Integer> previous) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> ledgerRows = new ArrayList<>();
+        List<Object[]> totalDeltas = new ArrayList<>();
+        teamPoints.forEach((teamId, points) -> {
+            Integer before = previous.get(teamId);
+            if (before != null && before == points) return;
+            ledgerRows.add(new Object[]{teamId, gameWeekId, points, now});
+            int delta = points - (before == null ? 0 : before);
+            if (delta != 0) {
+                totalDeltas.add(new Object[]{delta, now, teamId});
+            }
+        });
+
+        batchUpdate("INSERT INTO team_gameweek_score (fantasy_team_id, game_week_id, points, updated_at) VALUES (?, ?, ?, ?) " +
+                "ON CONFLICT (fantasy_team_id, game_week_id) DO UPDATE SET points = EXCLUDED.points, updated_at = EXCLUDED.updated_at",
+                ledgerRows);
+        batchUpdate("UPDATE fantasy_team SET total_points = total_points + ?, updated_at = ? WHERE id = ?", totalDeltas);
+        return ledgerRows.size();
+    }
+
+    private void batchUpdate(String sql, List<Object[]> args) {
+        for (int from = 0; from < args.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, args.subList(from, Math.min(from + BATCH_SIZE, args.size())));
+        }
+    }
+
+    private static long chunkStart(Long teamId) {
+        return (teamId / CHUNK_ID_RANGE) * CHUNK_ID_RANGE;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Scoring interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Scoring chunk failed", cause);
+        }
+    }
+
+    private static final class Chunk {
+        final List<LineupSlotRepository.StarterSlotView> starters = new ArrayList<>();
+        final Map<Long, Integer> previous = new HashMap<>();
+    }
+
+    private record ChunkResult(int points, int changedRows) {}
+}
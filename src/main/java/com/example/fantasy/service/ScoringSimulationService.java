@@ -0,0 +1,228 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.domain.ScoringRule;
+import com.example.fantasy.dto.AdminDtos;
+import com.example.fantasy.exception.NotFoundException;
+import com.example.fantasy.exception.ValidationException;
+import com.example.fantasy.repository.FantasyTeamRepository;
+import com.example.fantasy.repository.GameWeekRepository;
+import com.example.fantasy.repository.LineupSlotRepository;
+import com.example.fantasy.repository.PlayerPerformanceRepository;
+import com.example.fantasy.util.LongIntHashMap;
+import com.example.fantasy.util.ScoringWeights;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * What-if scoring for proposed rule changes. Loads each gameweek's starters and raw stat lines once,
+ * re-scores every performance in memory under both the stored points and the proposed weights, and
+ * reports how team totals and global ranks would move. Nothing is written.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ScoringSimulationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScoringSimulationService.class);
+
+    private static final String CAPTAIN_SLOT = "CPT";
+    // Stat columns per line, in ScoringWeights vector order
+    private static final int STATS = 7;
+
+    private final GameWeekRepository gwRepo;
+    private final PlayerPerformanceRepository perfRepo;
+    private final LineupSlotRepository slotRepo;
+    private final FantasyTeamRepository fantasyTeamRepo;
+    private final ScoringRuleService scoringRuleService;
+
+    public ScoringSimulationService(GameWeekRepository gwRepo, PlayerPerformanceRepository perfRepo,
+                                    LineupSlotRepository slotRepo, FantasyTeamRepository fantasyTeamRepo,
+                                    ScoringRuleService scoringRuleService) {
+        this.gwRepo = gwRepo;
+        this.perfRepo = perfRepo;
+        this.slotRepo = slotRepo;
+        this.fantasyTeamRepo = fantasyTeamRepo;
+        this.scoringRuleService = scoringRuleService;
+    }
+
+    public AdminDtos.ScoringSimulationResponse simulate(Map<String, BigDecimal> proposedRules, List<Long> gameWeekIds) {
+        long started = System.currentTimeMillis();
+        ScoringWeights proposed = compileProposed(proposedRules);
+
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(gameWeekIds));
+        if (gwRepo.findAllById(ids).size() != ids.size()) {
+            throw new NotFoundException("GameWeek not found");
+        }
+
+        // Database reads happen here, on the request thread; the scoring below is pure computation
+        List<GameWeekData> weeks = new ArrayList<>(ids.size());
+        for (Long gameWeekId : ids) {
+            weeks.add(load(gameWeekId));
+        }
+
+        GameWeekTotals[] totals = new GameWeekTotals[weeks.size()];
+        IntStream.range(0, weeks.size()).parallel().forEach(i -> totals[i] = score(weeks.get(i), proposed));
+
+        LongIntHashMap delta = new LongIntHashMap();
+        for (GameWeekTotals t : totals) {
+            t.current.forEach((teamId, points) -> delta.addTo(teamId, -points));
+            t.simulated.forEach(delta::addTo);
+        }
+
+        AdminDtos.ScoringSimulationResponse response = rank(ids, fantasyTeamRepo.findLeaderboardRows(), delta);
+        logger.info("[SCORING] Simulated {} gameweek(s) under proposed rules: {} teams changed in {} ms",
+                ids.size(), response.teamsChanged(), System.currentTimeMillis() - started);
+        return response;
+    }
+
+    // Current rules with the proposed values laid over them; nothing is saved
+    private ScoringWeights compileProposed(Map<String, BigDecimal> proposedRules) {
+        List<ScoringRule> rules = new ArrayList<>();
+        for (ScoringRule current : scoringRuleService.listRules()) {
+            if (!proposedRules.containsKey(current.getMetric())) {
+                rules.add(ScoringRule.builder().metric(current.getMetric()).pointsPerUnit(current.getPointsPerUnit()).build());
+            }
+        }
+        proposedRules.forEach((metric, pointsPerUnit) -> {
+            if (!ScoringWeights.isScoredMetric(metric)) {
+                throw new ValidationException("Unsupported scoring metric: " + metric);
+            }
+            if (pointsPerUnit == null) {
+                throw new ValidationException("Missing points for metric " + metric);
+            }
+            rules.add(ScoringRule.builder().metric(metric).pointsPerUnit(pointsPerUnit).build());
+        });
+        return ScoringWeights.compile(rules);
+    }
+
+    private GameWeekData load(Long gameWeekId) {
+        List<LineupSlotRepository.StarterSlotView> starters = slotRepo.findStartersByGameWeekId(gameWeekId);
+        int n = starters.size();
+        long[] teamIds = new long[n];
+        long[] playerIds = new long[n];
+        boolean[] captains = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            LineupSlotRepository.StarterSlotView s = starters.get(i);
+            teamIds[i] = s.getTeamId();
+            playerIds[i] = s.getPlayerId();
+            captains[i] = CAPTAIN_SLOT.equals(s.getSlotPosition());
+        }
+
+        List<PlayerPerformanceRepository.StatLineView> lines = perfRepo.findStatLinesByGameWeekId(gameWeekId);
+        int m = lines.size();
+        long[] linePlayers = new long[m];
+        int[] stats = new int[m * STATS];
+        int[] stored = new int[m];
+        for (int i = 0; i < m; i++) {
+            PlayerPerformanceRepository.StatLineView l = lines.get(i);
+            linePlayers[i] = l.getPlayerId();
+            int o = i * STATS;
+            stats[o] = nz(l.getPoints());
+            stats[o + 1] = nz(l.getRebounds());
+            stats[o + 2] = nz(l.getAssists());
+            stats[o + 3] = nz(l.getSteals());
+            stats[o + 4] = nz(l.getBlocks());
+            stats[o + 5] = nz(l.getTurnovers());
+            stats[o + 6] = nz(l.getThreeMade());
+            stored[i] = nz(l.getFantasyPoints());
+        }
+        return new GameWeekData(teamIds, playerIds, captains, linePlayers, stats, stored);
+    }
+
+    private static GameWeekTotals score(GameWeekData week, ScoringWeights proposed) {
+        int lines = week.linePlayers.length;
+        LongIntHashMap currentByPlayer = new LongIntHashMap(lines);
+        LongIntHashMap simulatedByPlayer = new LongIntHashMap(lines);
+        for (int i = 0; i < lines; i++) {
+            int o = i * STATS;
+            int[] s = week.stats;
+            // Rounded per performance, exactly as ingest stores it
+            simulatedByPlayer.addTo(week.linePlayers[i],
+                    proposed.calculateFantasyPoints(s[o], s[o + 1], s[o + 2], s[o + 3], s[o + 4], s[o + 5], s[o + 6]));
+            currentByPlayer.addTo(week.linePlayers[i], week.storedPoints[i]);
+        }
+
+        LongIntHashMap current = new LongIntHashMap();
+        LongIntHashMap simulated = new LongIntHashMap();
+        for (int i = 0; i < week.teamIds.length; i++) {
+            int multiplier = week.captains[i] ? 2 : 1;
+            current.addTo(week.teamIds[i], currentByPlayer.get(week.playerIds[i]) * multiplier);
+            simulated.addTo(week.teamIds[i], simulatedByPlayer.get(week.playerIds[i]) * multiplier);
+        }
+        return new GameWeekTotals(current, simulated);
+    }
+
+    // Global ranks in leaderboard order, so the current rank is the one the leaderboard shows
+    private static AdminDtos.ScoringSimulationResponse rank(List<Long> gameWeekIds,
+                                                           List<FantasyTeamRepository.LeaderboardRowView> teams,
+                                                           LongIntHashMap delta) {
+        int n = teams.size();
+        int[] current = new int[n];
+        int[] simulated = new int[n];
+        List<FantasyTeamRepository.LeaderboardRowView> simulatedTeams = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            FantasyTeamRepository.LeaderboardRowView t = teams.get(i);
+            current[i] = nz(t.getTotalPoints());
+            simulated[i] = current[i] + delta.get(t.getTeamId());
+            simulatedTeams.add(new SimulatedRow(t, simulated[i]));
+        }
+        int[] currentRank = ranks(teams);
+        int[] simulatedRank = ranks(simulatedTeams);
+
+        Integer[] order = new Integer[n];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparingInt(i -> simulatedRank[i]));
+
+        int changed = 0;
+        List<AdminDtos.TeamSimulation> rows = new ArrayList<>(n);
+        for (int i : order) {
+            if (current[i] != simulated[i] || currentRank[i] != simulatedRank[i]) changed++;
+            FantasyTeamRepository.LeaderboardRowView t = teams.get(i);
+            rows.add(new AdminDtos.TeamSimulation(t.getTeamId(), t.getTeamName(), current[i], simulated[i],
+                    simulated[i] - current[i], currentRank[i], simulatedRank[i], currentRank[i] - simulatedRank[i]));
+        }
+        return new AdminDtos.ScoringSimulationResponse(gameWeekIds, changed, rows);
+    }
+
+    private static int[] ranks(List<FantasyTeamRepository.LeaderboardRowView> teams) {
+        Integer[] order = new Integer[teams.size()];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, (a, b) -> LeaderboardSnapshot.ORDER.compare(teams.get(a), teams.get(b)));
+        int[] rank = new int[order.length];
+        for (int r = 0; r < order.length; r++) {
+            rank[order[r]] = r + 1;
+        }
+        return rank;
+    }
+
+    private static int nz(Integer v) {
+        return v == null ? 0 : v;
+    }
+
+    private record GameWeekData(long[] teamIds, long[] playerIds, boolean[] captains,
+                                long[] linePlayers, int[] stats, int[] storedPoints) {}
+
+    private record GameWeekTotals(LongIntHashMap current, LongIntHashMap simulated) {}
+
+    // A leaderboard row with its simulated total; transfers and registration still break ties
+    private record SimulatedRow(FantasyTeamRepository.LeaderboardRowView row, int points)
+            implements FantasyTeamRepository.LeaderboardRowView {
+        public Long getTeamId() { return row.getTeamId(); }
+        public String getTeamName() { return row.getTeamName(); }
+        public String getOwnerUsername() { return row.getOwnerUsername(); }
+        public Integer getTotalPoints() { return points; }
+        public Integer getTotalTransfers() { return row.getTotalTransfers(); }
+        public Instant getCreatedAt() { return row.getCreatedAt(); }
+    }
+}
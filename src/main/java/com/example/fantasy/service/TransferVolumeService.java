@@ -0,0 +1,127 @@
+package com.example.fantasy.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Net transfer volume per player and gameweek. Transfers bump in-memory counters instead of a shared
+ * database row; a periodic flush takes the counters out of the map, adds them to player_transfer_volume
+ * in one batch and then lets pricing move any player whose net transfers crossed the threshold.
+ * <p>
+ * Counting is not lock-free: each increment runs under ConcurrentHashMap's lock for the key's bin, so
+ * transfers of the same player serialize there (briefly, in memory). Striped LongAdder counters would
+ * avoid that, but a flush could then read a counter while an increment was still landing on it.
+ */
+@Service
+public class TransferVolumeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferVolumeService.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PlayerPricingService pricingService;
+
+    private final Map<VolumeKey, Counter> counters = new ConcurrentHashMap<>();
+
+    public TransferVolumeService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                 PlayerPricingService pricingService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.pricingService = pricingService;
+    }
+
+    // Called after the transfer commits
+    public void recordTransfer(Long gameWeekId, Long playerOutId, Long playerInId) {
+        add(new VolumeKey(gameWeekId, playerOutId), 0, 1);
+        add(new VolumeKey(gameWeekId, playerInId), 1, 0);
+    }
+
+    /**
+     * Writes the counts gathered since the last flush and applies the price moves they trigger, all in one
+     * transaction. Returns the number of players repriced. Counts for a player or gameweek that no longer
+     * exists are dropped. If the write fails the drained counts are put back, so they go out with the next
+     * flush.
+     */
+    public int flush() {
+        List<Object[]> rows = new ArrayList<>();
+        List<Drained> drained = new ArrayList<>();
+        for (VolumeKey key : counters.keySet()) {
+            // Removing the entry drains it; a transfer racing with this starts a new one for the next flush
+            Counter counter = counters.remove(key);
+            if (counter == null) continue;
+            drained.add(new Drained(key, counter));
+            rows.add(new Object[]{counter.in, counter.out, counter.in - counter.out, key.gameWeekId(), key.playerId()});
+        }
+        if (rows.isEmpty()) return 0;
+
+        try {
+            int[] written = new int[1];
+            Integer repriced = transactionTemplate.execute(status -> {
+                for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+                    // Joined to the player and gameweek, so a deleted one skips its row instead of failing the batch
+                    int[] counts = jdbcTemplate.batchUpdate("INSERT INTO player_transfer_volume " +
+                            "(player_id, game_week_id, transfers_in, transfers_out, pending_net, updated_at) " +
+                            "SELECT p.id, gw.id, ?, ?, ?, now() FROM basketball_player p JOIN game_week gw ON gw.id = ? " +
+                            "WHERE p.id = ? ON CONFLICT (player_id, game_week_id) DO UPDATE SET " +
+                            "transfers_in = player_transfer_volume.transfers_in + EXCLUDED.transfers_in, " +
+                            "transfers_out = player_transfer_volume.transfers_out + EXCLUDED.transfers_out, " +
+                            "pending_net = player_transfer_volume.pending_net + EXCLUDED.pending_net, " +
+                            "updated_at = EXCLUDED.updated_at",
+                            rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+                    for (int count : counts) {
+                        if (count != 0) written[0]++; // SUCCESS_NO_INFO counts as written
+                    }
+                }
+                return pricingService.applyTransferPriceChanges();
+            });
+            if (written[0] < rows.size()) {
+                logger.warn("[PRICING] Dropped transfer volume for {} deleted players or gameweeks", rows.size() - written[0]);
+            }
+            logger.info("[PRICING] Flushed transfer volume for {} players; {} repriced", written[0], repriced);
+            return repriced == null ? 0 : repriced;
+        } catch (RuntimeException e) {
+            drained.forEach(d -> add(d.key(), d.counter().in, d.counter().out));
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("[PRICING] Transfer volume flush on shutdown failed", e);
+        }
+    }
+
+    // Under the map's per-key lock, so an increment never lands on a counter flush has already taken
+    private void add(VolumeKey key, long in, long out) {
+        counters.compute(key, (k, counter) -> {
+            Counter c = counter == null ? new Counter() : counter;
+            c.in += in;
+            c.out += out;
+            return c;
+        });
+    }
+
+    private record VolumeKey(long gameWeekId, long playerId) {}
+
+    private record Drained(VolumeKey key, Counter counter) {}
+
+    // Only touched inside compute or after remove, both of which lock the key's bin
+    private static final class Counter {
+        long in;
+        long out;
+    }
+}
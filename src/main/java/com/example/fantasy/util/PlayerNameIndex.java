@@ -0,0 +1,298 @@
+package com.example.fantasy.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Trigram index over player names for typo-tolerant search. Names are folded (accents stripped, Arabic
+ * transliterated, lower case) and indexed twice: as spelled, and as a consonant skeleton that makes
+ * transliteration variants meet (Mohamed, Muhammad and the Arabic spelling all reduce to "mhmd"). A query scores each
+ * player by the share of its trigrams the name contains, so "lebrn" still finds LeBron.
+ * Methods are synchronized; updates touch one player's postings and searches are short.
+ */
+public final class PlayerNameIndex {
+
+    // Share of the query's trigrams a name must contain to count as a match
+    private static final double MIN_SIMILARITY = 0.34;
+    // Skeleton matches are looser than spelled ones, so they rank slightly lower
+    private static final double SKELETON_WEIGHT = 0.9;
+    private static final double PREFIX_BONUS = 0.1;
+    private static final long SKELETON_SPACE = 1L << 48;
+
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private final Map<Long, Integer> slotsByPlayer = new HashMap<>();
+    private final IntList freeSlots = new IntList();
+    private long[] playerIds = new long[16];
+    private long[][] gramsBySlot = new long[16][];
+    private String[][] tokensBySlot = new String[16][];
+    private int[] spelledGramCount = new int[16];
+    private int slotCount;
+
+    /** Indexes the player's name, replacing whatever was indexed for it before. */
+    public synchronized void upsert(long playerId, String firstName, String lastName) {
+        remove(playerId);
+        String[] tokens = tokens(fold(firstName + " " + lastName));
+        long[] spelled = grams(tokens, 0);
+        long[] skeleton = grams(skeletons(tokens), SKELETON_SPACE);
+
+        int slot = freeSlots.size > 0 ? freeSlots.removeLast() : slotCount++;
+        ensureCapacity(slot + 1);
+        long[] all = Arrays.copyOf(spelled, spelled.length + skeleton.length);
+        System.arraycopy(skeleton, 0, all, spelled.length, skeleton.length);
+        playerIds[slot] = playerId;
+        gramsBySlot[slot] = all;
+        tokensBySlot[slot] = tokens;
+        spelledGramCount[slot] = spelled.length;
+        for (long gram : all) {
+            postings.computeIfAbsent(gram, k -> new IntList()).add(slot);
+        }
+        slotsByPlayer.put(playerId, slot);
+    }
+
+    public synchronized boolean remove(long playerId) {
+        Integer slot = slotsByPlayer.remove(playerId);
+        if (slot == null) return false;
+        for (long gram : gramsBySlot[slot]) {
+            IntList list = postings.get(gram);
+            list.removeValue(slot);
+            if (list.size == 0) postings.remove(gram);
+        }
+        gramsBySlot[slot] = null;
+        tokensBySlot[slot] = null;
+        freeSlots.add(slot);
+        return true;
+    }
+
+    public synchronized int size() {
+        return slotsByPlayer.size();
+    }
+
+    /** Best {@code limit} matches for the query, highest score first; ties go to the lower player id. */
+    public synchronized List<Match> search(String query, int limit) {
+        String[] queryTokens = tokens(fold(query));
+        if (queryTokens.length == 0 || limit <= 0) return List.of();
+        long[] spelled = grams(queryTokens, 0);
+        long[] skeleton = grams(skeletons(queryTokens), SKELETON_SPACE);
+
+        // Only players sharing at least one trigram with the query are ever looked at
+        int[] spelledShared = new int[slotCount];
+        int[] skeletonShared = new int[slotCount];
+        IntList touched = new IntList();
+        count(spelled, spelledShared, skeletonShared, touched);
+        count(skeleton, skeletonShared, spelledShared, touched);
+
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, PlayerNameIndex::worseFirst);
+        for (int t = 0; t < touched.size; t++) {
+            int slot = touched.values[t];
+            double spelledCoverage = (double) spelledShared[slot] / spelled.length;
+            double skeletonCoverage = skeleton.length == 0 ? 0 : (double) skeletonShared[slot] / skeleton.length;
+            double similarity = Math.max(spelledCoverage, SKELETON_WEIGHT * skeletonCoverage);
+            if (similarity < MIN_SIMILARITY) continue;
+            // Among equal coverage prefer shorter names and names that start with what was typed
+            double score = similarity
+                    + 0.05 * spelledShared[slot] / Math.max(1, spelledGramCount[slot])
+                    + (startsWithAny(tokensBySlot[slot], queryTokens) ? PREFIX_BONUS : 0);
+            best.add(new Match(playerIds[slot], score));
+            if (best.size() > limit) best.poll();
+        }
+        List<Match> result = new ArrayList<>(best);
+        result.sort((a, b) -> worseFirst(b, a));
+        return result;
+    }
+
+    /**
+     * Lower case, accents and other combining marks removed, Arabic letters transliterated; anything
+     * that is not a letter or digit becomes a word break, except apostrophes, which are dropped.
+     */
+    public static String fold(String value) {
+        if (value == null) return "";
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFKD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char ch = decomposed.charAt(i);
+            int type = Character.getType(ch);
+            if (type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK
+                    || type == Character.COMBINING_SPACING_MARK || ch == '\u0640') {
+                continue; // accents, Arabic harakat, tatweel
+            }
+            if (ch == '\'' || ch == '\u2019' || ch == '\u02bc' || ch == '`') { // apostrophes: O'Neal is one word
+                continue;
+            }
+            String mapped = transliterate(ch);
+            if (mapped != null) {
+                out.append(mapped);
+            } else if (Character.isLetterOrDigit(ch)) {
+                out.append(Character.toLowerCase(ch));
+            } else {
+                out.append(' ');
+            }
+        }
+        return out.toString().trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * Consonant skeleton of a folded token: vowels (and the half-vowels w and y) dropped, spelling
+     * variants common in transliteration merged, doubled letters collapsed.
+     */
+    static String skeleton(String token) {
+        StringBuilder out = new StringBuilder(token.length());
+        for (int i = 0; i < token.length(); i++) {
+            char ch = token.charAt(i);
+            char next = i + 1 < token.length() ? token.charAt(i + 1) : 0;
+            char mapped;
+            switch (ch) {
+                case 'a', 'e', 'i', 'o', 'u', 'y', 'w' -> { continue; }
+                case 'q', 'c' -> mapped = 'k';
+                case 'j' -> mapped = 'g';
+                case 'p' -> {
+                    if (next == 'h') {
+                        i++;
+                        mapped = 'f';
+                    } else {
+                        mapped = 'p';
+                    }
+                }
+                default -> mapped = ch;
+            }
+            if (out.length() == 0 || out.charAt(out.length() - 1) != mapped) {
+                out.append(mapped);
+            }
+        }
+        return out.toString();
+    }
+
+    private void count(long[] queryGrams, int[] shared, int[] otherShared, IntList touched) {
+        for (long gram : queryGrams) {
+            IntList list = postings.get(gram);
+            if (list == null) continue;
+            for (int i = 0; i < list.size; i++) {
+                int slot = list.values[i];
+                if (shared[slot]++ == 0 && otherShared[slot] == 0) touched.add(slot);
+            }
+        }
+    }
+
+    private static boolean startsWithAny(String[] nameTokens, String[] queryTokens) {
+        for (String q : queryTokens) {
+            for (String t : nameTokens) {
+                if (t.startsWith(q)) return true;
+            }
+        }
+        return false;
+    }
+
+    private static int worseFirst(Match a, Match b) {
+        int c = Double.compare(a.score(), b.score());
+        return c != 0 ? c : Long.compare(b.playerId(), a.playerId());
+    }
+
+    private static String[] tokens(String folded) {
+        return folded.isEmpty() ? new String[0] : folded.split(" ");
+    }
+
+    private static String[] skeletons(String[] tokens) {
+        List<String> out = new ArrayList<>(tokens.length);
+        for (String t : tokens) {
+            String s = skeleton(t);
+            if (!s.isEmpty()) out.add(s);
+        }
+        return out.toArray(new String[0]);
+    }
+
+    // Distinct padded trigrams ("  a", " ab", "abc", ..., "yz ") of every token, as packed chars
+    private static long[] grams(String[] tokens, long space) {
+        long[] out = new long[16];
+        int n = 0;
+        for (String token : tokens) {
+            String padded = "  " + token + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                long gram = space | ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+                if (n == out.length) out = Arrays.copyOf(out, n * 2);
+                out[n++] = gram;
+            }
+        }
+        return Arrays.stream(out, 0, n).distinct().toArray();
+    }
+
+    private static String transliterate(char ch) {
+        return switch (ch) {
+            case '\u00df' -> "ss"; // sharp s
+            case '\u00e6' -> "ae";
+            case '\u0153' -> "oe";
+            case '\u00f8' -> "o";
+            case '\u0111', '\u00f0' -> "d"; // d with stroke, eth
+            case '\u0142' -> "l";
+            case '\u0131' -> "i"; // dotless i
+            case '\u00fe' -> "th"; // thorn
+            case '\u0627', '\u0623', '\u0622', '\u0649', '\u0629', '\u0639' -> "a"; // alef and its hamza/madda forms, alef maksura, ta marbuta, ain
+            case '\u0625', '\u0626' -> "i"; // alef with hamza below, yeh with hamza
+            case '\u0624' -> "u"; // waw with hamza
+            case '\u0621' -> ""; // bare hamza
+            case '\u0628' -> "b"; // beh
+            case '\u062a', '\u0637' -> "t"; // teh, tah
+            case '\u062b' -> "th"; // theh
+            case '\u062c' -> "j"; // jeem
+            case '\u062d', '\u0647' -> "h"; // hah, heh
+            case '\u062e' -> "kh"; // khah
+            case '\u062f', '\u0636' -> "d"; // dal, dad
+            case '\u0630' -> "dh"; // thal
+            case '\u0631' -> "r"; // reh
+            case '\u0632', '\u0638' -> "z"; // zain, zah
+            case '\u0633', '\u0635' -> "s"; // seen, sad
+            case '\u0634' -> "sh"; // sheen
+            case '\u063a' -> "gh"; // ghain
+            case '\u0641' -> "f"; // feh
+            case '\u0642' -> "q"; // qaf
+            case '\u0643', '\u06a9' -> "k"; // kaf, Persian keheh
+            case '\u0644' -> "l"; // lam
+            case '\u0645' -> "m"; // meem
+            case '\u0646' -> "n"; // noon
+            case '\u0648' -> "w"; // waw
+            case '\u064a', '\u06cc' -> "y"; // yeh, Farsi yeh
+            case '\u067e' -> "p"; // peh
+            case '\u0686' -> "ch"; // tcheh
+            case '\u0698' -> "zh"; // jeh
+            case '\u06af' -> "g"; // gaf
+            default -> null;
+        };
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= playerIds.length) return;
+        int capacity = Math.max(needed, playerIds.length * 2);
+        playerIds = Arrays.copyOf(playerIds, capacity);
+        gramsBySlot = Arrays.copyOf(gramsBySlot, capacity);
+        tokensBySlot = Arrays.copyOf(tokensBySlot, capacity);
+        spelledGramCount = Arrays.copyOf(spelledGramCount, capacity);
+    }
+
+    public record Match(long playerId, double score) {}
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int removeLast() {
+            return values[--size];
+        }
+
+        void removeValue(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+    }
+}
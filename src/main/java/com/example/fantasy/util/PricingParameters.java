@@ -0,0 +1,115 @@
+package com.example.fantasy.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Tunable constants of the gameweek pricing rule, and the rule itself. Live pricing uses
+ * {@link #DEFAULTS}; the pricing backtest replays history under other sets through the same BigDecimal
+ * arithmetic, so a backtest under the defaults moves prices exactly as the live run would.
+ */
+public record PricingParameters(
+        double priceChangeFactor,        // largest move per gameweek, as a share of the current price
+        double highPerformanceThreshold, // form (fantasy points) at or above which the price rises
+        double lowPerformanceThreshold,  // form at or below which it falls
+        double highOwnershipThreshold,   // ownership % at or above which the price rises
+        double lowOwnershipThreshold,    // ownership % at or below which it falls
+        double performanceStep,          // multiplier step for high or low form
+        double highOwnershipStep,
+        double lowOwnershipStep
+) {
+
+    public static final double MIN_PRICE = 4.0;
+    public static final double MAX_PRICE = 15.0;
+    private static final BigDecimal MIN_PRICE_VALUE = BigDecimal.valueOf(MIN_PRICE);
+    private static final BigDecimal MAX_PRICE_VALUE = BigDecimal.valueOf(MAX_PRICE);
+    // Smaller moves are not worth a price change
+    private static final BigDecimal MIN_PRICE_MOVE = new BigDecimal("0.1");
+
+    public static final PricingParameters DEFAULTS =
+            new PricingParameters(0.10, 25, 5, 20.0, 5.0, 0.05, 0.03, 0.02);
+
+    public PricingParameters {
+        if (!(priceChangeFactor > 0 && priceChangeFactor <= 1)) {
+            throw new IllegalArgumentException("priceChangeFactor must be in (0, 1]");
+        }
+        if (lowPerformanceThreshold > highPerformanceThreshold) {
+            throw new IllegalArgumentException("lowPerformanceThreshold is above highPerformanceThreshold");
+        }
+        if (lowOwnershipThreshold > highOwnershipThreshold) {
+            throw new IllegalArgumentException("lowOwnershipThreshold is above highOwnershipThreshold");
+        }
+        if (performanceStep < 0 || highOwnershipStep < 0 || lowOwnershipStep < 0) {
+            throw new IllegalArgumentException("Steps must not be negative");
+        }
+    }
+
+    /**
+     * Price after one gameweek, rounded half up to cents and kept within the price bounds. Returns the
+     * current price unchanged when the move would be smaller than 0.10.
+     */
+    public BigDecimal reprice(BigDecimal currentPrice, double performanceScore, double ownershipPercentage) {
+        double multiplier = multiplier(performanceScore, ownershipPercentage);
+
+        // Apply multiplier with maximum change limit
+        BigDecimal priceChange = currentPrice.multiply(new BigDecimal(multiplier - 1.0));
+        BigDecimal maxChange = currentPrice.multiply(BigDecimal.valueOf(priceChangeFactor));
+        if (priceChange.abs().compareTo(maxChange) > 0) {
+            priceChange = priceChange.signum() >= 0 ? maxChange : maxChange.negate();
+        }
+
+        BigDecimal newPrice = currentPrice.add(priceChange);
+        if (newPrice.compareTo(MIN_PRICE_VALUE) < 0) {
+            newPrice = MIN_PRICE_VALUE;
+        } else if (newPrice.compareTo(MAX_PRICE_VALUE) > 0) {
+            newPrice = MAX_PRICE_VALUE;
+        }
+        newPrice = newPrice.setScale(2, RoundingMode.HALF_UP);
+        return newPrice.subtract(currentPrice).abs().compareTo(MIN_PRICE_MOVE) < 0 ? currentPrice : newPrice;
+    }
+
+    /** The same rule for prices held as doubles of whole cents, as the backtest keeps them. */
+    public double reprice(double currentPrice, double performanceScore, double ownershipPercentage) {
+        BigDecimal current = BigDecimal.valueOf(currentPrice);
+        BigDecimal newPrice = reprice(current, performanceScore, ownershipPercentage);
+        return newPrice.compareTo(current) == 0 ? currentPrice : newPrice.doubleValue();
+    }
+
+    private double multiplier(double performanceScore, double ownershipPercentage) {
+        double multiplier = 1.0;
+        if (performanceScore >= highPerformanceThreshold) {
+            multiplier += performanceStep;
+        } else if (performanceScore <= lowPerformanceThreshold) {
+            multiplier -= performanceStep;
+        }
+        if (ownershipPercentage >= highOwnershipThreshold) {
+            multiplier += highOwnershipStep;
+        } else if (ownershipPercentage <= lowOwnershipThreshold) {
+            multiplier -= lowOwnershipStep;
+        }
+        return multiplier;
+    }
+
+    /** Copy with one parameter replaced, by component name; used to expand backtest grids. */
+    public PricingParameters with(String name, double value) {
+        return switch (name) {
+            case "priceChangeFactor" -> new PricingParameters(value, highPerformanceThreshold, lowPerformanceThreshold,
+                    highOwnershipThreshold, lowOwnershipThreshold, performanceStep, highOwnershipStep, lowOwnershipStep);
+            case "highPerformanceThreshold" -> new PricingParameters(priceChangeFactor, value, lowPerformanceThreshold,
+                    highOwnershipThreshold, lowOwnershipThreshold, performanceStep, highOwnershipStep, lowOwnershipStep);
+            case "lowPerformanceThreshold" -> new PricingParameters(priceChangeFactor, highPerformanceThreshold, value,
+                    highOwnershipThreshold, lowOwnershipThreshold, performanceStep, highOwnershipStep, lowOwnershipStep);
+            case "highOwnershipThreshold" -> new PricingParameters(priceChangeFactor, highPerformanceThreshold,
+                    lowPerformanceThreshold, value, lowOwnershipThreshold, performanceStep, highOwnershipStep, lowOwnershipStep);
+            case "lowOwnershipThreshold" -> new PricingParameters(priceChangeFactor, highPerformanceThreshold,
+                    lowPerformanceThreshold, highOwnershipThreshold, value, performanceStep, highOwnershipStep, lowOwnershipStep);
+            case "performanceStep" -> new PricingParameters(priceChangeFactor, highPerformanceThreshold,
+                    lowPerformanceThreshold, highOwnershipThreshold, lowOwnershipThreshold, value, highOwnershipStep, lowOwnershipStep);
+            case "highOwnershipStep" -> new PricingParameters(priceChangeFactor, highPerformanceThreshold,
+                    lowPerformanceThreshold, highOwnershipThreshold, lowOwnershipThreshold, performanceStep, value, lowOwnershipStep);
+            case "lowOwnershipStep" -> new PricingParameters(priceChangeFactor, highPerformanceThreshold,
+                    lowPerformanceThreshold, highOwnershipThreshold, lowOwnershipThreshold, performanceStep, highOwnershipStep, value);
+            default -> throw new IllegalArgumentException("Unknown pricing parameter: " + name);
+        };
+    }
+}
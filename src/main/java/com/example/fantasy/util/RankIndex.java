@@ -0,0 +1,184 @@
+package com.example.fantasy.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Order-statistic index over teams in leaderboard order: points desc, transfers asc, registration asc,
+ * then team id. Backed by a treap whose nodes carry subtree sizes, so rank-of-team, team-at-rank and
+ * single-team updates are all O(log n) expected. Methods are synchronized; contention is low because
+ * every operation is short.
+ */
+public final class RankIndex {
+
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    /** Inserts the team, or moves it to the position its new key sorts to. */
+    public synchronized void upsert(long teamId, int points, long transfers, long registeredAt) {
+        Node existing = nodes.get(teamId);
+        if (existing != null) {
+            root = delete(root, existing);
+        }
+        Node node = new Node(teamId, points, transfers, registeredAt, random.nextInt());
+        root = insert(root, node);
+        nodes.put(teamId, node);
+    }
+
+    public synchronized boolean remove(long teamId) {
+        Node existing = nodes.remove(teamId);
+        if (existing == null) return false;
+        root = delete(root, existing);
+        return true;
+    }
+
+    /** 1-based rank of the team, or -1 if it is not indexed. */
+    public synchronized int rankOf(long teamId) {
+        Node target = nodes.get(teamId);
+        if (target == null) return -1;
+        int before = 0;
+        Node t = root;
+        while (t != null) {
+            int c = compare(target, t);
+            if (c < 0) {
+                t = t.left;
+            } else if (c > 0) {
+                before += size(t.left) + 1;
+                t = t.right;
+            } else {
+                return before + size(t.left) + 1;
+            }
+        }
+        throw new IllegalStateException("Rank index out of sync for team " + teamId);
+    }
+
+    /** Team id at the 1-based rank, or -1 if the rank is out of range. */
+    public synchronized long teamAt(int rank) {
+        Node node = select(rank);
+        return node == null ? -1 : node.teamId;
+    }
+
+    /** Points the index holds for the team, or null if it is not indexed. */
+    public synchronized Integer pointsOf(long teamId) {
+        Node node = nodes.get(teamId);
+        return node == null ? null : node.points;
+    }
+
+    /** Transfers the index holds for the team, or -1 if it is not indexed. */
+    public synchronized long transfersOf(long teamId) {
+        Node node = nodes.get(teamId);
+        return node == null ? -1 : node.transfers;
+    }
+
+    public synchronized int size() {
+        return size(root);
+    }
+
+    private Node select(int rank) {
+        if (rank < 1 || rank > size(root)) return null;
+        Node t = root;
+        int k = rank;
+        while (t != null) {
+            int leftSize = size(t.left);
+            if (k <= leftSize) {
+                t = t.left;
+            } else if (k == leftSize + 1) {
+                return t;
+            } else {
+                k -= leftSize + 1;
+                t = t.right;
+            }
+        }
+        return null;
+    }
+
+    private static Node insert(Node t, Node node) {
+        if (t == null) return node;
+        if (node.priority > t.priority) {
+            Node[] parts = split(t, node);
+            node.left = parts[0];
+            node.right = parts[1];
+            return update(node);
+        }
+        if (compare(node, t) < 0) {
+            t.left = insert(t.left, node);
+        } else {
+            t.right = insert(t.right, node);
+        }
+        return update(t);
+    }
+
+    private static Node delete(Node t, Node node) {
+        if (t == null) return null;
+        if (t == node) return merge(t.left, t.right);
+        if (compare(node, t) < 0) {
+            t.left = delete(t.left, node);
+        } else {
+            t.right = delete(t.right, node);
+        }
+        return update(t);
+    }
+
+    // Splits into nodes ordered before the key and nodes ordered after it
+    private static Node[] split(Node t, Node key) {
+        if (t == null) return new Node[2];
+        if (compare(t, key) < 0) {
+            Node[] parts = split(t.right, key);
+            t.right = parts[0];
+            parts[0] = update(t);
+            return parts;
+        }
+        Node[] parts = split(t.left, key);
+        t.left = parts[1];
+        parts[1] = update(t);
+        return parts;
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            return update(a);
+        }
+        b.left = merge(a, b.left);
+        return update(b);
+    }
+
+    private static Node update(Node t) {
+        t.size = size(t.left) + size(t.right) + 1;
+        return t;
+    }
+
+    private static int size(Node t) {
+        return t == null ? 0 : t.size;
+    }
+
+    private static int compare(Node a, Node b) {
+        if (a.points != b.points) return Integer.compare(b.points, a.points);
+        if (a.transfers != b.transfers) return Long.compare(a.transfers, b.transfers);
+        if (a.registeredAt != b.registeredAt) return Long.compare(a.registeredAt, b.registeredAt);
+        return Long.compare(a.teamId, b.teamId);
+    }
+
+    private static final class Node {
+        final long teamId;
+        final int points;
+        final long transfers;
+        final long registeredAt;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(long teamId, int points, long transfers, long registeredAt, int priority) {
+            this.teamId = teamId;
+            this.points = points;
+            this.transfers = transfers;
+            this.registeredAt = registeredAt;
+            this.priority = priority;
+        }
+    }
+}
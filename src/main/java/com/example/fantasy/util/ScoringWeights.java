@@ -0,0 +1,93 @@
+package com.example.fantasy.util;
+
+import com.example.fantasy.domain.PlayerPerformance;
+import com.example.fantasy.domain.ScoringRule;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Scoring rules compiled into a fixed weight vector. Weights are held in hundredths of a point
+ * (scoring_rule.points_per_unit is NUMERIC(6,2)), so fractional weights are exact and a
+ * performance is scored with one integer dot product. Each weight is added as-is: penalties
+ * such as TURNOVER are stored as negative values.
+ */
+public final class ScoringWeights {
+
+    public static final String POINT = "POINT";
+    public static final String REBOUND = "REBOUND";
+    public static final String ASSIST = "ASSIST";
+    public static final String STEAL = "STEAL";
+    public static final String BLOCK = "BLOCK";
+    public static final String TURNOVER = "TURNOVER";
+    public static final String THREE_MADE = "THREE_MADE";
+
+    // Vector order; defaults apply when a metric has no rule
+    private static final String[] METRICS = {POINT, REBOUND, ASSIST, STEAL, BLOCK, TURNOVER, THREE_MADE};
+    private static final int[] DEFAULT_CENTS = {100, 100, 100, 300, 300, -100, 100};
+
+    private final int[] cents;
+
+    private ScoringWeights(int[] cents) {
+        this.cents = cents;
+    }
+
+    public static ScoringWeights compile(List<ScoringRule> rules) {
+        int[] cents = DEFAULT_CENTS.clone();
+        for (ScoringRule rule : rules) {
+            int idx = indexOf(rule.getMetric());
+            if (idx >= 0 && rule.getPointsPerUnit() != null) {
+                cents[idx] = toCents(rule.getPointsPerUnit());
+            }
+        }
+        return new ScoringWeights(cents);
+    }
+
+    public int calculateFantasyPoints(PlayerPerformance p) {
+        return calculateFantasyPoints(nz(p.getPoints()), nz(p.getRebounds()), nz(p.getAssists()), nz(p.getSteals()),
+                nz(p.getBlocks()), nz(p.getTurnovers()), nz(p.getThreeMade()));
+    }
+
+    public int calculateFantasyPoints(int points, int rebounds, int assists, int steals, int blocks, int turnovers, int threeMade) {
+        long total = (long) cents[0] * points
+                + (long) cents[1] * rebounds
+                + (long) cents[2] * assists
+                + (long) cents[3] * steals
+                + (long) cents[4] * blocks
+                + (long) cents[5] * turnovers
+                + (long) cents[6] * threeMade;
+        return roundCents(total);
+    }
+
+    public static boolean isScoredMetric(String metric) {
+        return indexOf(metric) >= 0;
+    }
+
+    /** Weight of a metric in hundredths of a point, or 0 for metrics the vector does not score. */
+    public int centsFor(String metric) {
+        int idx = indexOf(metric);
+        return idx < 0 ? 0 : cents[idx];
+    }
+
+    // Half away from zero, the same as PostgreSQL ROUND(numeric)
+    static int roundCents(long totalCents) {
+        long rounded = totalCents >= 0 ? (totalCents + 50) / 100 : -((-totalCents + 50) / 100);
+        return Math.toIntExact(rounded);
+    }
+
+    private static int toCents(BigDecimal pointsPerUnit) {
+        return pointsPerUnit.setScale(2, RoundingMode.HALF_UP).unscaledValue().intValueExact();
+    }
+
+    private static int indexOf(String metric) {
+        for (int i = 0; i < METRICS.length; i++) {
+            if (METRICS[i].equals(metric)) return i;
+        }
+        return -1;
+    }
+
+    private static int nz(Integer v) {
+        return v == null ? 0 : v;
+    }
+}
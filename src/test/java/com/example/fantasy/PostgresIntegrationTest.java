@@ -0,0 +1,105 @@
+package com.example.fantasy;
+
+import com.example.fantasy.domain.*;
+import com.example.fantasy.domain.enums.GameWeekStatus;
+import com.example.fantasy.domain.enums.MatchStatus;
+import com.example.fantasy.domain.enums.PlayerPosition;
+import com.example.fantasy.domain.enums.UserRole;
+import com.example.fantasy.repository.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base for tests that need the real schema: one PostgreSQL container for the whole run, migrated by
+ * Liquibase on context start. Tests share the database and do not roll back, so every fixture gets a
+ * unique name or number. Skipped when Docker is not available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger(1000);
+
+    @Autowired protected BasketballTeamRepository basketballTeamRepo;
+    @Autowired protected BasketballPlayerRepository playerRepo;
+    @Autowired protected UserRepository userRepo;
+    @Autowired protected FantasyTeamRepository fantasyTeamRepo;
+    @Autowired protected FantasyTeamPlayerRepository teamPlayerRepo;
+    @Autowired protected GameWeekRepository gameWeekRepo;
+    @Autowired protected MatchRepository matchRepo;
+    @Autowired protected PlayerPerformanceRepository perfRepo;
+    @Autowired protected LineupRepository lineupRepo;
+    @Autowired protected LineupSlotRepository slotRepo;
+
+    protected static int next() {
+        return SEQUENCE.incrementAndGet();
+    }
+
+    protected BasketballTeam basketballTeam() {
+        int n = next();
+        return basketballTeamRepo.save(BasketballTeam.builder().name("Team " + n).shortName("T" + n).city("Beirut").build());
+    }
+
+    protected BasketballPlayer player(BasketballTeam team, String price) {
+        int n = next();
+        return playerRepo.save(BasketballPlayer.builder().firstName("Player").lastName("No" + n)
+                .position(PlayerPosition.PG).team(team).marketValue(new BigDecimal(price)).active(true).build());
+    }
+
+    protected FantasyTeam fantasyTeam(int totalPoints) {
+        int n = next();
+        User owner = userRepo.save(User.builder().username("user" + n).email("user" + n + "@example.com")
+                .passwordHash("x").role(UserRole.USER).active(true).build());
+        return fantasyTeamRepo.save(FantasyTeam.builder().teamName("Fantasy " + n).owner(owner)
+                .budget(new BigDecimal("100.00")).totalPoints(totalPoints).transfersRemaining(1).build());
+    }
+
+    protected void addToSquad(FantasyTeam team, BasketballPlayer... players) {
+        for (BasketballPlayer p : players) {
+            teamPlayerRepo.save(FantasyTeamPlayer.builder().fantasyTeam(team).player(p).purchasePrice(p.getMarketValue())
+                    .active(true).acquiredAt(Instant.now()).build());
+        }
+    }
+
+    protected GameWeek gameWeek(GameWeekStatus status) {
+        return gameWeekRepo.save(GameWeek.builder().number(next()).startDate(LocalDate.now())
+                .endDate(LocalDate.now().plusDays(7)).status(status).build());
+    }
+
+    protected Match match(GameWeek gw, BasketballTeam home, BasketballTeam away) {
+        return matchRepo.save(Match.builder().gameWeek(gw).homeTeam(home).awayTeam(away)
+                .kickoff(Instant.now()).status(MatchStatus.FINISHED).build());
+    }
+
+    protected PlayerPerformance performance(Match match, BasketballPlayer player, int fantasyPoints) {
+        return perfRepo.save(PlayerPerformance.builder().match(match).player(player).fantasyPoints(fantasyPoints).build());
+    }
+
+    // Starters in order; the captain is marked CPT as setLineup does
+    protected Lineup lineup(FantasyTeam team, GameWeek gw, List<BasketballPlayer> starters, BasketballPlayer captain,
+                            List<BasketballPlayer> bench) {
+        Lineup lineup = lineupRepo.save(Lineup.builder().fantasyTeam(team).gameWeek(gw).createdAt(Instant.now()).build());
+        for (BasketballPlayer p : starters) {
+            slotRepo.save(LineupSlot.builder().lineup(lineup).player(p).starter(true)
+                    .slotPosition(p.getId().equals(captain.getId()) ? "CPT" : null).build());
+        }
+        for (BasketballPlayer p : bench) {
+            slotRepo.save(LineupSlot.builder().lineup(lineup).player(p).starter(false).build());
+        }
+        return lineup;
+    }
+}
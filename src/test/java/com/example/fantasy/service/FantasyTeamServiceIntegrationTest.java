@@ -0,0 +1,54 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.PostgresIntegrationTest;
+import com.example.fantasy.domain.BasketballPlayer;
+import com.example.fantasy.domain.BasketballTeam;
+import com.example.fantasy.domain.FantasyTeam;
+import com.example.fantasy.domain.GameWeek;
+import com.example.fantasy.domain.enums.GameWeekStatus;
+import com.example.fantasy.dto.FantasyDtos;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FantasyTeamServiceIntegrationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private FantasyTeamService fantasyTeamService;
+
+    @Test
+    void alternatingGameweeksDoesNotResetTheTransferCount() {
+        BasketballTeam club = basketballTeam();
+        BasketballPlayer a = player(club, "8.00");
+        BasketballPlayer b = player(club, "8.00");
+        GameWeek active = gameWeek(GameWeekStatus.ACTIVE);
+        GameWeek upcoming = gameWeek(GameWeekStatus.UPCOMING);
+        FantasyTeam team = fantasyTeam(100);
+        addToSquad(team, a);
+
+        // One free transfer in each gameweek
+        transfer(team, active, a, b);
+        transfer(team, upcoming, b, a);
+        assertEquals(100, totalPoints(team));
+
+        // The second transfer of each gameweek costs 10, even though the other gameweek came in between
+        transfer(team, active, a, b);
+        assertEquals(90, totalPoints(team));
+        transfer(team, upcoming, b, a);
+        assertEquals(80, totalPoints(team));
+
+        FantasyTeam reloaded = fantasyTeamRepo.findById(team.getId()).orElseThrow();
+        assertEquals(2, reloaded.getGameweekTransfers());
+        assertEquals(upcoming.getId(), reloaded.getTransfersGameWeekId());
+        assertEquals(4, reloaded.getSeasonTransfers());
+    }
+
+    private void transfer(FantasyTeam team, GameWeek gw, BasketballPlayer out, BasketballPlayer in) {
+        fantasyTeamService.makeTransfer(new FantasyDtos.TransferRequest(team.getId(), gw.getId(), out.getId(), in.getId()));
+    }
+
+    private int totalPoints(FantasyTeam team) {
+        return fantasyTeamRepo.findById(team.getId()).orElseThrow().getTotalPoints();
+    }
+}
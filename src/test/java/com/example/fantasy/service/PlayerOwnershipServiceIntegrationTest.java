@@ -0,0 +1,43 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.PostgresIntegrationTest;
+import com.example.fantasy.domain.BasketballPlayer;
+import com.example.fantasy.domain.BasketballTeam;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PlayerOwnershipServiceIntegrationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PlayerOwnershipService ownershipService;
+
+    @Test
+    void transferMovesOneOwnerAndCreatesMissingRows() {
+        BasketballTeam club = basketballTeam();
+        BasketballPlayer a = player(club, "8.00");
+        BasketballPlayer b = player(club, "8.00");
+        BasketballPlayer c = player(club, "8.00");
+        ownershipService.playersAdded(List.of(a.getId(), b.getId()));
+
+        // Both directions, so the higher id is the out player once
+        ownershipService.playerTransferred(a.getId(), c.getId());
+        ownershipService.playerTransferred(b.getId(), a.getId());
+        assertOwners(1, a);
+        assertOwners(0, b);
+        assertOwners(1, c);
+
+        // Never below zero, even for a player without a row yet
+        BasketballPlayer d = player(club, "8.00");
+        ownershipService.playerTransferred(d.getId(), b.getId());
+        assertOwners(0, d);
+        assertOwners(1, b);
+    }
+
+    private void assertOwners(int expected, BasketballPlayer player) {
+        assertEquals(expected, ownershipService.snapshot().ownerCount(player.getId()));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.PostgresIntegrationTest;
+import com.example.fantasy.domain.BasketballPlayer;
+import com.example.fantasy.domain.GameWeek;
+import com.example.fantasy.domain.enums.GameWeekStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PlayerPricingServiceIntegrationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PlayerPricingService pricingService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void pendingVolumeAcrossGameweeksMovesThePriceOncePerThreshold() {
+        BasketballPlayer player = player(basketballTeam(), "8.00");
+        GameWeek earlier = gameWeek(GameWeekStatus.COMPLETED);
+        GameWeek later = gameWeek(GameWeekStatus.ACTIVE);
+        // Each gameweek alone is past the threshold of 20
+        pendingNet(player, earlier, 25);
+        pendingNet(player, later, 25);
+
+        pricingService.applyTransferPriceChanges();
+        assertEquals(new BigDecimal("8.10"), price(player));
+        assertEquals(1, historyRows(player));
+        assertEquals(30L, totalPending(player));
+
+        pricingService.applyTransferPriceChanges();
+        assertEquals(new BigDecimal("8.20"), price(player));
+        assertEquals(2, historyRows(player));
+        assertEquals(10L, totalPending(player));
+
+        // Below the threshold now
+        pricingService.applyTransferPriceChanges();
+        assertEquals(new BigDecimal("8.20"), price(player));
+    }
+
+    @Test
+    void gameweekHistoryRecordsTheStoredPrice() {
+        // No form yet (neutral) and no owners (low ownership): -2%
+        BasketballPlayer player = player(basketballTeam(), "10.00");
+        GameWeek gw = gameWeek(GameWeekStatus.COMPLETED);
+
+        pricingService.updatePricesForGameWeek(gw.getId());
+        assertEquals(new BigDecimal("9.80"), price(player));
+        assertEquals(List.of(new BigDecimal("10.00"), new BigDecimal("9.80")), jdbcTemplate.queryForObject(
+                "SELECT old_price, new_price FROM player_price_history WHERE player_id = ? AND game_week_id = ?",
+                (rs, i) -> List.of(rs.getBigDecimal(1), rs.getBigDecimal(2)), player.getId(), gw.getId()));
+    }
+
+    private void pendingNet(BasketballPlayer player, GameWeek gw, long net) {
+        jdbcTemplate.update("INSERT INTO player_transfer_volume (player_id, game_week_id, transfers_in, transfers_out, " +
+                "pending_net, updated_at) VALUES (?, ?, ?, 0, ?, now())", player.getId(), gw.getId(), net, net);
+    }
+
+    private BigDecimal price(BasketballPlayer player) {
+        return playerRepo.findById(player.getId()).orElseThrow().getMarketValue();
+    }
+
+    private int historyRows(BasketballPlayer player) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM player_price_history WHERE player_id = ?",
+                Integer.class, player.getId());
+    }
+
+    private long totalPending(BasketballPlayer player) {
+        return jdbcTemplate.queryForObject("SELECT SUM(pending_net) FROM player_transfer_volume WHERE player_id = ?",
+                Long.class, player.getId());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.PostgresIntegrationTest;
+import com.example.fantasy.domain.BasketballPlayer;
+import com.example.fantasy.domain.GameWeek;
+import com.example.fantasy.domain.enums.GameWeekStatus;
+import com.example.fantasy.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PriceHistoryServiceIntegrationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PriceHistoryService priceHistoryService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Test
+    void sparklineLeadingBucketsUseThePriceBeforeTheFirstChange() {
+        BasketballPlayer player = player(basketballTeam(), "8.00");
+        GameWeek gw = gameWeek(GameWeekStatus.COMPLETED);
+        // First change ever lands in the third of four buckets
+        change(player, gw, START.plus(Duration.ofDays(5)), "8.00", "8.50");
+
+        PriceHistoryService.Sparkline line = priceHistoryService.sparklines(List.of(player.getId()),
+                START, START.plus(Duration.ofDays(8)), 4).get(0);
+        assertEquals(List.of(new BigDecimal("8.00"), new BigDecimal("8.00"), new BigDecimal("8.50"),
+                new BigDecimal("8.50")), line.prices());
+    }
+
+    @Test
+    void tooManyPointsAreRejectedOrCoarsenedNeverCutShort() {
+        BasketballPlayer player = player(basketballTeam(), "8.00");
+        GameWeek gw = gameWeek(GameWeekStatus.COMPLETED);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            Timestamp at = Timestamp.from(START.plus(Duration.ofMinutes(10L * i)));
+            rows.add(new Object[]{player.getId(), gw.getId(), at});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO player_price_history (player_id, game_week_id, old_price, new_price, " +
+                "price_change, created_at) VALUES (?, ?, 8.00, 8.10, 0.10, ?)", rows);
+        Instant end = START.plus(Duration.ofDays(10));
+
+        assertThrows(ValidationException.class, () ->
+                priceHistoryService.history(player.getId(), START, end, PriceHistoryService.Resolution.RAW));
+        assertThrows(ValidationException.class, () ->
+                priceHistoryService.history(player.getId(), START, START.plus(Duration.ofDays(60)),
+                        PriceHistoryService.Resolution.HOUR));
+
+        // AUTO falls back to hourly buckets, and the newest one is still there
+        PriceHistoryService.PriceSeries series = priceHistoryService.history(player.getId(), START, end,
+                PriceHistoryService.Resolution.AUTO);
+        assertEquals(PriceHistoryService.Resolution.HOUR, series.resolution());
+        assertEquals(200, series.points().size());
+        assertEquals(START.plus(Duration.ofHours(199)), series.points().get(199).at());
+    }
+
+    private void change(BasketballPlayer player, GameWeek gw, Instant at, String oldPrice, String newPrice) {
+        jdbcTemplate.update("INSERT INTO player_price_history (player_id, game_week_id, old_price, new_price, " +
+                "price_change, created_at) VALUES (?, ?, ?, ?, ?, ?)", player.getId(), gw.getId(),
+                new BigDecimal(oldPrice), new BigDecimal(newPrice),
+                new BigDecimal(newPrice).subtract(new BigDecimal(oldPrice)), Timestamp.from(at));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.PostgresIntegrationTest;
+import com.example.fantasy.domain.*;
+import com.example.fantasy.domain.enums.GameWeekStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RankHistoryServiceIntegrationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ScoringService scoringService;
+    @Autowired
+    private RankHistoryService rankHistoryService;
+
+    @Test
+    void rescoringAnOlderGameweekKeepsItsCapturedStanding() {
+        BasketballTeam home = basketballTeam();
+        BasketballTeam away = basketballTeam();
+        BasketballPlayer p = player(home, "8.00");
+        BasketballPlayer captain = player(away, "8.00");
+        FantasyTeam team = fantasyTeam(0);
+
+        GameWeek first = gameWeek(GameWeekStatus.COMPLETED);
+        PlayerPerformance firstPerf = performance(match(first, home, away), p, 10);
+        performance(match(first, away, home), captain, 5);
+        lineup(team, first, List.of(p, captain), captain, List.of());
+        scoringService.calculateGameWeekPoints(first.getId());
+
+        GameWeek second = gameWeek(GameWeekStatus.COMPLETED);
+        performance(match(second, home, away), p, 20);
+        lineup(team, second, List.of(p), p, List.of());
+        scoringService.calculateGameWeekPoints(second.getId());
+
+        // Gameweek 1: 10 + 5 x2; gameweek 2: 20 x2
+        RankHistoryService.GameWeekRank before = row(team, first);
+        assertEquals(20, before.totalPoints());
+        assertEquals(20, before.gameweekPoints());
+        assertEquals(60, row(team, second).totalPoints());
+
+        // A stat correction in gameweek 1 moves its own points, not the standing captured back then
+        firstPerf.setFantasyPoints(13);
+        perfRepo.save(firstPerf);
+        scoringService.calculateGameWeekPoints(first.getId());
+
+        RankHistoryService.GameWeekRank after = row(team, first);
+        assertEquals(23, after.gameweekPoints());
+        assertEquals(20, after.totalPoints());
+        assertEquals(before.globalRank(), after.globalRank());
+        assertEquals(60, row(team, second).totalPoints());
+        assertEquals(63, fantasyTeamRepo.findById(team.getId()).orElseThrow().getTotalPoints());
+    }
+
+    private RankHistoryService.GameWeekRank row(FantasyTeam team, GameWeek gw) {
+        return rankHistoryService.getTeamHistory(team.getId()).gameWeeks().stream()
+                .filter(r -> r.gameWeekId().equals(gw.getId()))
+                .findFirst().orElseThrow();
+    }
+}
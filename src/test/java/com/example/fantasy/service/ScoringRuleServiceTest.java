@@ -0,0 +1,55 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.domain.ScoringRule;
+import com.example.fantasy.repository.ScoringRuleRepository;
+import com.example.fantasy.util.ScoringWeights;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ScoringRuleServiceTest {
+
+    private final ScoringRuleRepository scoringRepo = mock(ScoringRuleRepository.class);
+    private final ScoringRuleService service = new ScoringRuleService(scoringRepo, null, null, null, null);
+
+    private static ScoringRule rule(String metric, String pointsPerUnit) {
+        return ScoringRule.builder().metric(metric).pointsPerUnit(new BigDecimal(pointsPerUnit)).build();
+    }
+
+    @Test
+    void weightsAreCompiledOnceUntilInvalidated() {
+        when(scoringRepo.findAll()).thenReturn(List.of(rule(ScoringWeights.POINT, "2.00")));
+
+        assertEquals(200, service.getWeights().centsFor(ScoringWeights.POINT));
+        assertEquals(200, service.getWeights().centsFor(ScoringWeights.POINT));
+        verify(scoringRepo, times(1)).findAll();
+
+        service.invalidate();
+        service.getWeights();
+        verify(scoringRepo, times(2)).findAll();
+    }
+
+    @Test
+    void ruleChangeDuringACompileDoesNotLeaveTheOldWeightsCached() {
+        // The first compile reads the old rule; the update commits and invalidates before it installs
+        when(scoringRepo.findAll())
+                .thenAnswer(invocation -> {
+                    service.invalidate();
+                    return List.of(rule(ScoringWeights.POINT, "1.00"));
+                })
+                .thenReturn(List.of(rule(ScoringWeights.POINT, "2.00")));
+
+        // The racing read still scores with what it loaded, the next one picks up the new rule
+        assertEquals(100, service.getWeights().centsFor(ScoringWeights.POINT));
+        assertEquals(200, service.getWeights().centsFor(ScoringWeights.POINT));
+        assertEquals(200, service.getWeights().centsFor(ScoringWeights.POINT));
+        verify(scoringRepo, times(2)).findAll();
+    }
+}
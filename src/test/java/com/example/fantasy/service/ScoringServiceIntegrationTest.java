@@ -0,0 +1,80 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.PostgresIntegrationTest;
+import com.example.fantasy.domain.*;
+import com.example.fantasy.domain.enums.GameWeekStatus;
+import com.example.fantasy.repository.TeamGameWeekScoreRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ScoringServiceIntegrationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private ScoringService scoringService;
+    @Autowired
+    private TeamGameWeekScoreRepository scoreRepo;
+
+    @Test
+    void bulkScoringSumsStartersWithCaptainDoubleAndIsIdempotent() {
+        BasketballTeam home = basketballTeam();
+        BasketballTeam away = basketballTeam();
+        GameWeek gw = gameWeek(GameWeekStatus.COMPLETED);
+        Match match = match(gw, home, away);
+        Match secondMatch = match(gw, away, home);
+
+        List<BasketballPlayer> players = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            BasketballPlayer p = player(i % 2 == 0 ? home : away, "8.00");
+            performance(match, p, 10 * (i + 1)); // 10, 20, ..., 60
+            players.add(p);
+        }
+        // Double gameweek: both fixtures count
+        PlayerPerformance second = performance(secondMatch, players.get(1), 5);
+
+        List<BasketballPlayer> starters = players.subList(0, 5);
+        List<BasketballPlayer> bench = List.of(players.get(5));
+        FantasyTeam captainFirst = fantasyTeam(100);
+        lineup(captainFirst, gw, starters, players.get(0), bench);
+        FantasyTeam captainLast = fantasyTeam(0);
+        lineup(captainLast, gw, starters, players.get(4), bench);
+        FantasyTeam noLineup = fantasyTeam(7);
+
+        // Starters 10 + 25 + 30 + 40 + 50 = 155; the bench player's 60 never counts
+        int gameWeekPoints = scoringService.calculateGameWeekPoints(gw.getId());
+        assertEquals((155 + 10) + (155 + 50), gameWeekPoints);
+        assertEquals(100 + 165, totalPoints(captainFirst));
+        assertEquals(205, totalPoints(captainLast));
+        assertEquals(7, totalPoints(noLineup));
+        assertEquals(Map.of(captainFirst.getId(), 165, captainLast.getId(), 205), ledger(gw));
+
+        // Re-running an unchanged gameweek moves nothing
+        scoringService.calculateGameWeekPoints(gw.getId());
+        assertEquals(265, totalPoints(captainFirst));
+        assertEquals(205, totalPoints(captainLast));
+
+        // A stat correction applies only the difference
+        second.setFantasyPoints(15);
+        perfRepo.save(second);
+        scoringService.calculateGameWeekPoints(gw.getId());
+        assertEquals(275, totalPoints(captainFirst));
+        assertEquals(215, totalPoints(captainLast));
+        assertEquals(Map.of(captainFirst.getId(), 175, captainLast.getId(), 215), ledger(gw));
+    }
+
+    private int totalPoints(FantasyTeam team) {
+        return fantasyTeamRepo.findById(team.getId()).orElseThrow().getTotalPoints();
+    }
+
+    private Map<Long, Integer> ledger(GameWeek gw) {
+        return scoreRepo.findScoresByGameWeekId(gw.getId()).stream()
+                .collect(Collectors.toMap(TeamGameWeekScoreRepository.TeamScoreView::getTeamId,
+                        TeamGameWeekScoreRepository.TeamScoreView::getPoints));
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.PostgresIntegrationTest;
+import com.example.fantasy.domain.BasketballPlayer;
+import com.example.fantasy.domain.BasketballTeam;
+import com.example.fantasy.domain.GameWeek;
+import com.example.fantasy.domain.Match;
+import com.example.fantasy.domain.enums.GameWeekStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Scores a gameweek with thousands of teams and checks the set-based path stays set-based: the
+ * statement count must not grow with the number of teams, and the run must finish well inside the
+ * time the old per-team loop (one slot query plus one save and flush per lineup) needed.
+ */
+class ScoringServiceScaleIntegrationTest extends PostgresIntegrationTest {
+
+    private static final int TEAMS = 5000;
+    // The per-team loop issued at least two statements per team; the bulk path a handful per chunk
+    private static final int MAX_STATEMENTS = TEAMS / 20;
+    private static final Duration MAX_RUNTIME = Duration.ofSeconds(15);
+
+    private static final AtomicInteger STATEMENTS = new AtomicInteger();
+
+    @TestConfiguration
+    static class StatementCounting {
+
+        // Counts every statement the application prepares, whichever thread or repository issues it
+        @Bean
+        static BeanPostProcessor countingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ds ? new CountingDataSource(ds) : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private ScoringService scoringService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void scoringThousandsOfTeamsUsesAFixedNumberOfStatements() {
+        BasketballTeam club = basketballTeam();
+        BasketballTeam other = basketballTeam();
+        GameWeek gw = gameWeek(GameWeekStatus.COMPLETED);
+        Match match = match(gw, club, other);
+        // Players score 10, 20, ..., 60; the sixth sits on every bench
+        for (int i = 1; i <= 6; i++) {
+            BasketballPlayer p = player(club, "8.00");
+            performance(match, p, 10 * i);
+        }
+        String tag = "scale" + next();
+        insertTeamsWithLineups(tag, gw, club);
+
+        STATEMENTS.set(0);
+        long started = System.nanoTime();
+        scoringService.calculateGameWeekPoints(gw.getId());
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        int statements = STATEMENTS.get();
+
+        assertTrue(statements <= MAX_STATEMENTS, statements + " statements for " + TEAMS + " teams");
+        assertTrue(elapsed.compareTo(MAX_RUNTIME) <= 0, "Scoring " + TEAMS + " teams took " + elapsed);
+
+        // Starters 10..50 sum to 150; the captain (first to fifth by lineup id) adds their points again
+        assertEquals(TEAMS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM team_gameweek_score WHERE game_week_id = ?", Integer.class, gw.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM fantasy_team ft JOIN lineup l ON l.fantasy_team_id = ft.id " +
+                "WHERE l.game_week_id = ? AND ft.total_points <> 150 + 10 * (1 + l.id % 5)",
+                Integer.class, gw.getId()));
+    }
+
+    // Bulk fixtures in SQL: saving thousands of entities one by one would dwarf the run being measured
+    private void insertTeamsWithLineups(String tag, GameWeek gw, BasketballTeam club) {
+        jdbcTemplate.update("INSERT INTO users (username, email, password_hash, role, active, created_at) " +
+                "SELECT ? || '_' || g, ? || '_' || g || '@example.com', 'x', 'USER', true, now() " +
+                "FROM generate_series(1, ?) g", tag, tag, TEAMS);
+        jdbcTemplate.update("INSERT INTO fantasy_team (team_name, owner_user_id, budget, total_points, " +
+                "transfers_remaining, created_at) SELECT u.username, u.id, 100.00, 0, 1, now() " +
+                "FROM users u WHERE u.username LIKE ? || '\\_%'", tag);
+        jdbcTemplate.update("INSERT INTO lineup (fantasy_team_id, game_week_id, created_at) " +
+                "SELECT ft.id, ?, now() FROM fantasy_team ft JOIN users u ON u.id = ft.owner_user_id " +
+                "WHERE u.username LIKE ? || '\\_%'", gw.getId(), tag);
+        jdbcTemplate.update("INSERT INTO lineup_slot (lineup_id, player_id, starter, slot_position) " +
+                "SELECT l.id, p.id, p.rn <= 5, CASE WHEN p.rn = 1 + l.id % 5 THEN 'CPT' END " +
+                "FROM lineup l CROSS JOIN (SELECT id, row_number() OVER (ORDER BY id) AS rn " +
+                "FROM basketball_player WHERE team_id = ?) p WHERE l.game_week_id = ?", club.getId(), gw.getId());
+    }
+
+    private static final class CountingDataSource extends DelegatingDataSource {
+
+        CountingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return counting(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return counting(super.getConnection(username, password));
+        }
+
+        private static Connection counting(Connection target) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.equals("prepareStatement") || name.equals("createStatement")
+                                || name.equals("prepareCall")) {
+                            STATEMENTS.incrementAndGet();
+                        }
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
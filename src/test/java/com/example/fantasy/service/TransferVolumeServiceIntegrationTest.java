@@ -0,0 +1,51 @@
+package com.example.fantasy.service;
+
+import com.example.fantasy.PostgresIntegrationTest;
+import com.example.fantasy.domain.BasketballPlayer;
+import com.example.fantasy.domain.BasketballTeam;
+import com.example.fantasy.domain.GameWeek;
+import com.example.fantasy.domain.enums.GameWeekStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TransferVolumeServiceIntegrationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private TransferVolumeService transferVolumeService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void countsForAMissingPlayerOrGameweekAreDroppedWithoutBlockingOthers() {
+        BasketballTeam club = basketballTeam();
+        BasketballPlayer a = player(club, "8.00");
+        BasketballPlayer b = player(club, "8.00");
+        GameWeek gw = gameWeek(GameWeekStatus.ACTIVE);
+
+        transferVolumeService.recordTransfer(gw.getId(), a.getId(), b.getId());
+        transferVolumeService.recordTransfer(gw.getId(), a.getId(), Long.MAX_VALUE);
+        transferVolumeService.recordTransfer(Long.MAX_VALUE, a.getId(), b.getId());
+        transferVolumeService.flush();
+
+        assertEquals(List.of(0L, 2L, -2L), volume(a, gw));
+        assertEquals(List.of(1L, 0L, 1L), volume(b, gw));
+
+        // Nothing was put back for the missing rows, so the next flush has nothing left to write
+        transferVolumeService.recordTransfer(gw.getId(), b.getId(), a.getId());
+        transferVolumeService.flush();
+        assertEquals(List.of(1L, 2L, -1L), volume(a, gw));
+        assertEquals(List.of(1L, 1L, 0L), volume(b, gw));
+    }
+
+    private List<Long> volume(BasketballPlayer player, GameWeek gw) {
+        return jdbcTemplate.queryForObject(
+                "SELECT transfers_in, transfers_out, pending_net FROM player_transfer_volume " +
+                "WHERE player_id = ? AND game_week_id = ?",
+                (rs, i) -> List.of(rs.getLong(1), rs.getLong(2), rs.getLong(3)), player.getId(), gw.getId());
+    }
+}
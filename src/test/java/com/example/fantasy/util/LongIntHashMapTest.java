@@ -0,0 +1,99 @@
+package com.example.fantasy.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongIntHashMapTest {
+
+    @Test
+    void missingKeysReadAsZero() {
+        LongIntHashMap map = new LongIntHashMap();
+        assertEquals(0, map.get(42));
+        assertFalse(map.containsKey(42));
+
+        map.put(42, 7);
+        assertEquals(7, map.get(42));
+        assertTrue(map.containsKey(42));
+        assertEquals(0, map.get(43));
+        assertFalse(map.containsKey(43));
+    }
+
+    @Test
+    void putOverwritesAndAddToAccumulates() {
+        LongIntHashMap map = new LongIntHashMap();
+        assertEquals(5, map.addTo(1, 5));
+        assertEquals(2, map.addTo(1, -3));
+        map.put(1, 10);
+        assertEquals(10, map.get(1));
+        // Adding zero still creates the entry
+        assertEquals(0, map.addTo(2, 0));
+        assertTrue(map.containsKey(2));
+    }
+
+    @Test
+    void zeroAndNegativeKeysAreOrdinaryKeys() {
+        LongIntHashMap map = new LongIntHashMap();
+        assertFalse(map.containsKey(0));
+        map.addTo(0, 3);
+        map.addTo(0, 4);
+        map.put(-1, 11);
+        map.put(Long.MIN_VALUE, 12);
+        map.put(Long.MAX_VALUE, 13);
+
+        assertTrue(map.containsKey(0));
+        assertEquals(7, map.get(0));
+        assertEquals(11, map.get(-1));
+        assertEquals(12, map.get(Long.MIN_VALUE));
+        assertEquals(13, map.get(Long.MAX_VALUE));
+        assertEquals(0, map.get(1));
+
+        Map<Long, Integer> seen = new HashMap<>();
+        map.forEach(seen::put);
+        assertEquals(Map.of(0L, 7, -1L, 11, Long.MIN_VALUE, 12, Long.MAX_VALUE, 13), seen);
+    }
+
+    @Test
+    void collidingKeysAllSurviveProbing() {
+        // Eight slots: more than a few keys must share a probe chain
+        LongIntHashMap map = new LongIntHashMap(1);
+        // Keys that differ only in their high bits, and dense ids, as team and player ids are
+        long[] keys = {1L << 32, 2L << 32, 3L << 32, 1, 2, 3, 4};
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i + 1);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i + 1, map.get(keys[i]));
+            assertTrue(map.containsKey(keys[i]));
+        }
+        assertFalse(map.containsKey(4L << 32));
+        assertFalse(map.containsKey(5));
+    }
+
+    @Test
+    void growsPastTheExpectedSizeWithoutLosingEntries() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 20_000; i++) {
+            long key = i % 3 == 0 ? i : random.nextLong();
+            int delta = random.nextInt(100) - 50;
+            map.addTo(key, delta);
+            expected.merge(key, delta, Integer::sum);
+        }
+
+        for (Map.Entry<Long, Integer> e : expected.entrySet()) {
+            assertEquals(e.getValue().intValue(), map.get(e.getKey()));
+        }
+        Map<Long, Integer> seen = new HashMap<>();
+        map.forEach((key, value) -> assertNull(seen.put(key, value)));
+        assertEquals(expected, seen);
+    }
+}
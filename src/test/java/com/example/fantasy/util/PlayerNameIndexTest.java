@@ -0,0 +1,88 @@
+package com.example.fantasy.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlayerNameIndexTest {
+
+    // Arabic spelling of Muhammad
+    private static final String ARABIC_MUHAMMAD = "\u0645\u062d\u0645\u062f";
+
+    @Test
+    void foldStripsAccentsApostrophesAndExtraSpaces() {
+        assertEquals("jose perez", PlayerNameIndex.fold("Jos\u00e9 P\u00e9rez"));
+        assertEquals("oneal", PlayerNameIndex.fold("O'Neal"));
+        assertEquals("lebron james", PlayerNameIndex.fold("  LeBron   James "));
+        assertEquals("", PlayerNameIndex.fold(null));
+    }
+
+    @Test
+    void transliterationVariantsShareASkeleton() {
+        assertEquals("mhmd", PlayerNameIndex.fold(ARABIC_MUHAMMAD));
+        assertEquals("mhmd", PlayerNameIndex.skeleton(PlayerNameIndex.fold("Mohamed")));
+        assertEquals("mhmd", PlayerNameIndex.skeleton(PlayerNameIndex.fold("Muhammad")));
+        assertEquals("mhmd", PlayerNameIndex.skeleton(PlayerNameIndex.fold("Mohammed")));
+        assertEquals("mhmd", PlayerNameIndex.skeleton(PlayerNameIndex.fold(ARABIC_MUHAMMAD)));
+    }
+
+    @Test
+    void typoStillFindsThePlayerFirst() {
+        PlayerNameIndex index = index();
+        assertEquals(List.of(1L, 3L), ids(index.search("lebrn", 5)));
+        assertEquals(List.of(5L), ids(index.search("curyy", 5)));
+    }
+
+    @Test
+    void spellingVariantsFindEachOther() {
+        PlayerNameIndex index = index();
+        assertEquals(List.of(2L, 4L), ids(index.search("mohammed", 5)));
+        assertTrue(ids(index.search(ARABIC_MUHAMMAD, 5)).containsAll(List.of(2L, 4L)));
+    }
+
+    @Test
+    void upsertReplacesAndRemoveDropsAPlayer() {
+        PlayerNameIndex index = index();
+        assertEquals(5, index.size());
+
+        index.upsert(5, "Klay", "Thompson");
+        assertEquals(5, index.size());
+        assertEquals(List.of(), ids(index.search("curry", 5)));
+        assertEquals(List.of(5L), ids(index.search("thompson", 5)));
+
+        assertTrue(index.remove(1));
+        assertFalse(index.remove(1));
+        assertEquals(4, index.size());
+        assertFalse(ids(index.search("lebron", 5)).contains(1L));
+
+        // A freed slot is reused without leaking the old name
+        index.upsert(6, "Nikola", "Jokic");
+        assertEquals(List.of(6L), ids(index.search("jokic", 5)));
+        assertFalse(ids(index.search("lebron", 5)).contains(6L));
+    }
+
+    @Test
+    void blankQueryOrZeroLimitFindsNothing() {
+        PlayerNameIndex index = index();
+        assertEquals(List.of(), index.search("  ", 5));
+        assertEquals(List.of(), index.search("lebron", 0));
+    }
+
+    private static PlayerNameIndex index() {
+        PlayerNameIndex index = new PlayerNameIndex();
+        index.upsert(1, "LeBron", "James");
+        index.upsert(2, "Mohamed", "Salah");
+        index.upsert(3, "Lebo", "Brown");
+        index.upsert(4, "Muhammad", "Ali");
+        index.upsert(5, "Stephen", "Curry");
+        return index;
+    }
+
+    private static List<Long> ids(List<PlayerNameIndex.Match> matches) {
+        return matches.stream().map(PlayerNameIndex.Match::playerId).toList();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.fantasy.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PricingParametersTest {
+
+    private static final PricingParameters DEFAULTS = PricingParameters.DEFAULTS;
+
+    // Form and ownership that select each branch: high, neutral, low
+    private static final double[] PERFORMANCE = {30, 15, 0};
+    private static final double[] OWNERSHIP = {25, 10, 0};
+
+    @Test
+    void halfCentTiesRoundUpLikeTheLiveRule() {
+        // 4.30 x 1.05 = 4.515
+        assertEquals(new BigDecimal("4.52"), DEFAULTS.reprice(new BigDecimal("4.30"), 30, 10));
+        assertEquals(4.52, DEFAULTS.reprice(4.30, 30, 10));
+    }
+
+    @Test
+    void movesAreCappedClampedAndSkippedWhenSmall() {
+        // +8%, inside the 10% cap
+        assertEquals(new BigDecimal("10.80"), DEFAULTS.reprice(new BigDecimal("10.00"), 30, 25));
+        // -7% from the floor stays at the floor, so nothing moves
+        assertEquals(new BigDecimal("4.00"), DEFAULTS.reprice(new BigDecimal("4.00"), 0, 0));
+        // Clamped to the ceiling
+        assertEquals(new BigDecimal("15.00"), DEFAULTS.reprice(new BigDecimal("14.50"), 30, 25));
+        // 2% of 4.50 is 0.09, under the 0.10 minimum move
+        assertEquals(new BigDecimal("4.50"), DEFAULTS.reprice(new BigDecimal("4.50"), 15, 0));
+        // Neutral form and ownership never move
+        assertEquals(new BigDecimal("9.99"), DEFAULTS.reprice(new BigDecimal("9.99"), 15, 10));
+    }
+
+    @Test
+    void matchesTheOriginalRuleForEveryPriceAndBranch() {
+        for (int cents = 400; cents <= 1500; cents++) {
+            BigDecimal price = BigDecimal.valueOf(cents, 2);
+            for (double performance : PERFORMANCE) {
+                for (double ownership : OWNERSHIP) {
+                    BigDecimal expected = originalRule(price, performance, ownership);
+                    String label = price + " form " + performance + " ownership " + ownership;
+                    assertEquals(0, expected.compareTo(DEFAULTS.reprice(price, performance, ownership)), label);
+                    assertEquals(expected.doubleValue(), DEFAULTS.reprice(price.doubleValue(), performance, ownership),
+                            label);
+                }
+            }
+        }
+    }
+
+    @Test
+    void withReplacesOneComponentAndValidates() {
+        PricingParameters wider = DEFAULTS.with("priceChangeFactor", 0.2);
+        assertEquals(0.2, wider.priceChangeFactor());
+        assertEquals(DEFAULTS.performanceStep(), wider.performanceStep());
+        assertThrows(IllegalArgumentException.class, () -> DEFAULTS.with("priceChangeFactor", 0));
+        assertThrows(IllegalArgumentException.class, () -> DEFAULTS.with("lowOwnershipThreshold", 50));
+        assertThrows(IllegalArgumentException.class, () -> DEFAULTS.with("noSuchParameter", 1));
+    }
+
+    // The gameweek rule as PlayerPricingService.calculateNewPrice applied it before the backtest existed
+    private static BigDecimal originalRule(BigDecimal currentPrice, double performanceScore, double ownershipPercentage) {
+        double multiplier = 1.0;
+        if (performanceScore >= 25) {
+            multiplier += 0.05;
+        } else if (performanceScore <= 5) {
+            multiplier -= 0.05;
+        }
+        if (ownershipPercentage >= 20.0) {
+            multiplier += 0.03;
+        } else if (ownershipPercentage <= 5.0) {
+            multiplier -= 0.02;
+        }
+        BigDecimal priceChange = currentPrice.multiply(new BigDecimal(multiplier - 1.0));
+        BigDecimal maxChange = currentPrice.multiply(new BigDecimal("0.10"));
+        if (priceChange.abs().compareTo(maxChange) > 0) {
+            priceChange = priceChange.signum() >= 0 ? maxChange : maxChange.negate();
+        }
+        BigDecimal newPrice = currentPrice.add(priceChange);
+        if (newPrice.compareTo(new BigDecimal("4.0")) < 0) {
+            newPrice = new BigDecimal("4.0");
+        } else if (newPrice.compareTo(new BigDecimal("15.0")) > 0) {
+            newPrice = new BigDecimal("15.0");
+        }
+        newPrice = newPrice.setScale(2, RoundingMode.HALF_UP);
+        return newPrice.subtract(currentPrice).abs().compareTo(new BigDecimal("0.1")) < 0 ? currentPrice : newPrice;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.fantasy.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RankIndexTest {
+
+    private record Row(long teamId, int points, long transfers, long registeredAt) {}
+
+    // Leaderboard order as LeaderboardService sorts it, with team id as the final tie-breaker
+    private static final Comparator<Row> ORDER = Comparator
+            .comparingInt(Row::points).reversed()
+            .thenComparingLong(Row::transfers)
+            .thenComparingLong(Row::registeredAt)
+            .thenComparingLong(Row::teamId);
+
+    @Test
+    void emptyIndex() {
+        RankIndex index = new RankIndex();
+        assertEquals(0, index.size());
+        assertEquals(-1, index.rankOf(1));
+        assertEquals(-1, index.teamAt(1));
+        assertNull(index.pointsOf(1));
+        assertEquals(-1, index.transfersOf(1));
+        assertFalse(index.remove(1));
+    }
+
+    @Test
+    void tiesBreakOnTransfersThenRegistrationThenTeamId() {
+        RankIndex index = new RankIndex();
+        index.upsert(1, 50, 2, 100);
+        index.upsert(2, 50, 1, 200);
+        index.upsert(3, 50, 1, 100);
+        index.upsert(4, 50, 1, 100);
+        index.upsert(5, 60, 9, 900);
+
+        assertEquals(List.of(5L, 3L, 4L, 2L, 1L), teamsInRankOrder(index));
+        assertEquals(1, index.rankOf(5));
+        assertEquals(5, index.rankOf(1));
+        assertEquals(-1, index.teamAt(0));
+        assertEquals(-1, index.teamAt(6));
+    }
+
+    @Test
+    void upsertMovesAnExistingTeam() {
+        RankIndex index = new RankIndex();
+        index.upsert(1, 10, 0, 0);
+        index.upsert(2, 20, 0, 0);
+        assertEquals(2, index.rankOf(1));
+
+        index.upsert(1, 30, 1, 0);
+        assertEquals(2, index.size());
+        assertEquals(1, index.rankOf(1));
+        assertEquals(30, index.pointsOf(1));
+        assertEquals(1, index.transfersOf(1));
+
+        assertTrue(index.remove(1));
+        assertEquals(1, index.size());
+        assertEquals(1, index.rankOf(2));
+        assertEquals(-1, index.rankOf(1));
+    }
+
+    @Test
+    void randomUpsertsAndRemovesMatchASortedList() {
+        Random random = new Random(42);
+        RankIndex index = new RankIndex();
+        Map<Long, Row> expected = new HashMap<>();
+
+        for (int step = 0; step < 20_000; step++) {
+            // Narrow ranges so ties on every key component are common
+            long teamId = random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(teamId) != null, index.remove(teamId));
+            } else {
+                Row row = new Row(teamId, random.nextInt(40), random.nextInt(4), random.nextInt(3));
+                index.upsert(row.teamId(), row.points(), row.transfers(), row.registeredAt());
+                expected.put(teamId, row);
+            }
+            if (step % 1000 == 999) {
+                assertMatches(expected, index);
+            }
+        }
+        assertMatches(expected, index);
+    }
+
+    private static void assertMatches(Map<Long, Row> expected, RankIndex index) {
+        List<Row> sorted = new ArrayList<>(expected.values());
+        sorted.sort(ORDER);
+        assertEquals(sorted.size(), index.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            Row row = sorted.get(i);
+            assertEquals(i + 1, index.rankOf(row.teamId()), "rank of team " + row.teamId());
+            assertEquals(row.teamId(), index.teamAt(i + 1), "team at rank " + (i + 1));
+            assertEquals(row.points(), index.pointsOf(row.teamId()));
+            assertEquals(row.transfers(), index.transfersOf(row.teamId()));
+        }
+        for (long teamId = 0; teamId < 500; teamId++) {
+            if (!expected.containsKey(teamId)) {
+                assertEquals(-1, index.rankOf(teamId));
+            }
+        }
+    }
+
+    private static List<Long> teamsInRankOrder(RankIndex index) {
+        List<Long> teams = new ArrayList<>();
+        for (int rank = 1; rank <= index.size(); rank++) {
+            teams.add(index.teamAt(rank));
+        }
+        return teams;
+    }
+}
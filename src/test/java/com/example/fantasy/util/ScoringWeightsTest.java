@@ -0,0 +1,82 @@
+package com.example.fantasy.util;
+
+import com.example.fantasy.domain.PlayerPerformance;
+import com.example.fantasy.domain.ScoringRule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoringWeightsTest {
+
+    private static ScoringRule rule(String metric, String pointsPerUnit) {
+        return ScoringRule.builder().metric(metric).pointsPerUnit(pointsPerUnit == null ? null : new BigDecimal(pointsPerUnit)).build();
+    }
+
+    @Test
+    void defaultsApplyWhenNoRules() {
+        ScoringWeights weights = ScoringWeights.compile(List.of());
+        // 10 points, 5 rebounds, 3 assists, 2 steals x3, 1 block x3, 4 turnovers x-1, 2 threes
+        assertEquals(10 + 5 + 3 + 6 + 3 - 4 + 2, weights.calculateFantasyPoints(10, 5, 3, 2, 1, 4, 2));
+        assertEquals(-100, weights.centsFor(ScoringWeights.TURNOVER));
+    }
+
+    @Test
+    void rulesOverrideDefaultsAndUnknownOrEmptyRulesAreIgnored() {
+        ScoringWeights weights = ScoringWeights.compile(List.of(
+                rule(ScoringWeights.POINT, "2.00"),
+                rule(ScoringWeights.STEAL, null),
+                rule("DOUBLE_DOUBLE", "5.00")));
+        assertEquals(200, weights.centsFor(ScoringWeights.POINT));
+        assertEquals(300, weights.centsFor(ScoringWeights.STEAL));
+        assertEquals(0, weights.centsFor("DOUBLE_DOUBLE"));
+        assertFalse(ScoringWeights.isScoredMetric("DOUBLE_DOUBLE"));
+        assertTrue(ScoringWeights.isScoredMetric(ScoringWeights.THREE_MADE));
+        assertEquals(20 + 1, weights.calculateFantasyPoints(10, 0, 0, 0, 0, 0, 1));
+    }
+
+    @Test
+    void turnoverWeightIsAddedWithItsStoredSign() {
+        ScoringWeights penalty = ScoringWeights.compile(List.of(rule(ScoringWeights.TURNOVER, "-2.00")));
+        assertEquals(10 - 6, penalty.calculateFantasyPoints(10, 0, 0, 0, 0, 3, 0));
+
+        // A positive stored value is not flipped into a penalty
+        ScoringWeights reward = ScoringWeights.compile(List.of(rule(ScoringWeights.TURNOVER, "1.00")));
+        assertEquals(10 + 3, reward.calculateFantasyPoints(10, 0, 0, 0, 0, 3, 0));
+    }
+
+    @Test
+    void fractionalWeightsRoundHalfAwayFromZero() {
+        ScoringWeights weights = ScoringWeights.compile(List.of(
+                rule(ScoringWeights.POINT, "0.50"),
+                rule(ScoringWeights.TURNOVER, "-0.50")));
+        assertEquals(2, weights.calculateFantasyPoints(3, 0, 0, 0, 0, 0, 0));   // 1.5
+        assertEquals(1, weights.calculateFantasyPoints(2, 0, 0, 0, 0, 0, 0));   // 1.0
+        assertEquals(-2, weights.calculateFantasyPoints(0, 0, 0, 0, 0, 3, 0));  // -1.5
+        assertEquals(0, weights.calculateFantasyPoints(3, 0, 0, 0, 0, 3, 0));   // 1.5 - 1.5
+
+        assertEquals(2, ScoringWeights.roundCents(150));
+        assertEquals(1, ScoringWeights.roundCents(149));
+        assertEquals(-2, ScoringWeights.roundCents(-150));
+        assertEquals(-1, ScoringWeights.roundCents(-149));
+        assertEquals(0, ScoringWeights.roundCents(49));
+        assertEquals(0, ScoringWeights.roundCents(-49));
+    }
+
+    @Test
+    void pointsPerUnitBeyondCentsRoundHalfUp() {
+        ScoringWeights weights = ScoringWeights.compile(List.of(rule(ScoringWeights.ASSIST, "0.125")));
+        assertEquals(13, weights.centsFor(ScoringWeights.ASSIST));
+    }
+
+    @Test
+    void missingStatsCountAsZero() {
+        ScoringWeights weights = ScoringWeights.compile(List.of());
+        PlayerPerformance performance = PlayerPerformance.builder().points(12).steals(1).turnovers(null).build();
+        assertEquals(12 + 3, weights.calculateFantasyPoints(performance));
+    }
+}